@@ -0,0 +1,50 @@
+package com.guessgame.benchmark;
+
+import com.guessgame.dto.UserBalanceView;
+import com.guessgame.dto.UserCredentialsView;
+import com.guessgame.repository.UserRepository;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+
+/**
+ * Tiện ích dựng các bean của ứng dụng bên ngoài Spring context cho benchmark.
+ */
+final class BenchmarkSupport {
+
+    static final String SECRET = "ThisIsMySuperSecretKeyForJWTToken123456789";
+
+    private BenchmarkSupport() {
+    }
+
+    // Gán giá trị cho field (thường là field @Value) của bean
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " on " + target.getClass());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    /**
+     * UserRepository giả trả dữ liệu cố định, không truy cập cơ sở dữ liệu.
+     * Chỉ hỗ trợ các truy vấn dùng trong đường xử lý được benchmark.
+     */
+    static UserRepository inMemoryUserRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findRoleByUsername" -> Optional.of("USER");
+                    case "findBalanceByUsername" -> Optional.of(new UserBalanceView(1L, Integer.MAX_VALUE, 0));
+                    case "findCredentialsByUsername" ->
+                            Optional.of(new UserCredentialsView((String) args[0], "{noop}password", "USER"));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package com.guessgame.benchmark;
+
+import com.guessgame.controller.GameController;
+import com.guessgame.dto.GuessRequest;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.service.GameEventLog;
+import com.guessgame.service.GameRandom;
+import com.guessgame.service.GameService;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.service.TurnLedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logic quyết định của lượt đoán số (RNG, tính điểm, cập nhật bảng xếp hạng) và phần dựng response của
+ * {@code GameController.guess}, chạy với sổ cái trong bộ nhớ để loại bỏ chi phí cơ sở dữ liệu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuessBenchmark {
+
+    private GameService gameService;
+
+    private GameController gameController;
+
+    private UserDetails player;
+
+    private GuessRequest request;
+
+    @Setup
+    public void setUp() {
+        TurnLedger turnLedger = new TurnLedger(BenchmarkSupport.inMemoryUserRepository(), null, null);
+        BenchmarkSupport.setField(turnLedger, "enabled", true);
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex(null);
+        gameService = new GameService(null, turnLedger, leaderboardIndex, null, GameRandom.threadLocal(), GameMetrics.noop(),
+                GameEventLog.disabled());
+        gameController = new GameController(gameService, leaderboardIndex, GameMetrics.noop(), null);
+
+        player = User.withUsername("player").password("").roles("USER").build();
+        request = new GuessRequest();
+        request.setNumber(3);
+    }
+
+    @Benchmark
+    public Object serviceGuess() {
+        return gameService.guess("player", 3);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object serviceGuessContended() {
+        return gameService.guess("player", 3);
+    }
+
+    @Benchmark
+    public Object controllerGuess() {
+        return gameController.guess(player, request);
+    }
+}
@@ -0,0 +1,74 @@
+package com.guessgame.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.guessgame.dto.GuessResponse;
+import com.guessgame.dto.GuessResult;
+import com.guessgame.service.GameService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dựng và serialize phản hồi của {@code POST /api/guess}: {@link GuessResponse} (thông báo dựng sẵn)
+ * so với HashMap + {@code String.format} như trước đây. So sánh {@code gc.alloc.rate.norm} của hai benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GuessResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ObjectWriter recordWriter;
+
+    private ObjectWriter mapWriter;
+
+    @Setup
+    public void setUp() {
+        recordWriter = objectMapper.writerFor(GuessResponse.class);
+        mapWriter = objectMapper.writerFor(Map.class);
+    }
+
+    @Benchmark
+    public byte[] typedRecord() throws Exception {
+        return recordWriter.writeValueAsBytes(GuessResponse.of(nextResult()));
+    }
+
+    @Benchmark
+    public byte[] hashMapWithFormat() throws Exception {
+        GuessResult result = nextResult();
+        String message = result.win()
+                ? String.format("Chúc mừng! Bạn đã đoán đúng số: %d, bạn được cộng %d điểm.", result.serverNumber(), GameService.POINTS_PER_WIN)
+                : String.format("Rất tiếc! Bạn đã đoán sai số: %d, số đúng là %d", result.number(), result.serverNumber());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", message);
+        response.put("serverNumber", result.serverNumber());
+        response.put("score", result.score());
+        response.put("turns", result.turns());
+        return mapWriter.writeValueAsBytes(response);
+    }
+
+    private static GuessResult nextResult() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int number = random.nextInt(5) + 1;
+        int serverNumber = random.nextInt(5) + 1;
+        return new GuessResult(number, serverNumber, number == serverNumber, 1234, 56);
+    }
+}
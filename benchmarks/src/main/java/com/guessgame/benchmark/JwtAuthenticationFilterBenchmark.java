@@ -0,0 +1,75 @@
+package com.guessgame.benchmark;
+
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.security.JwtAuthenticationFilter;
+import com.guessgame.security.JwtUtil;
+import com.guessgame.service.UserDetailsServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toàn bộ {@code JwtAuthenticationFilter.doFilterInternal} cho một request có Bearer token hợp lệ
+ * (principal được lấy từ bộ đệm, UserRepository là bản giả trong bộ nhớ).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain chain = (req, res) -> {
+    };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        BenchmarkSupport.setField(jwtUtil, "secretKey", BenchmarkSupport.SECRET);
+        BenchmarkSupport.setField(jwtUtil, "expiration", 3_600_000L);
+        BenchmarkSupport.setField(jwtUtil, "cacheMaxSize", 10_000);
+        jwtUtil.init();
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(BenchmarkSupport.inMemoryUserRepository());
+        BenchmarkSupport.setField(userDetailsService, "cacheMaxSize", 10_000);
+        BenchmarkSupport.setField(userDetailsService, "cacheTtlMs", 300_000L);
+        userDetailsService.init();
+
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, GameMetrics.noop());
+        request = new MockHttpServletRequest("POST", "/api/guess");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("player"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+            request.clearAttributes();
+        }
+    }
+}
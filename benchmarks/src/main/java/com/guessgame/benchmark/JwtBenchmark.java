@@ -0,0 +1,62 @@
+package com.guessgame.benchmark;
+
+import com.guessgame.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí tạo và xác thực JWT trong {@link JwtUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        BenchmarkSupport.setField(jwtUtil, "secretKey", BenchmarkSupport.SECRET);
+        BenchmarkSupport.setField(jwtUtil, "expiration", 3_600_000L);
+        BenchmarkSupport.setField(jwtUtil, "cacheMaxSize", 10_000);
+        jwtUtil.init();
+        token = jwtUtil.generateToken("player");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("player");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, "player");
+    }
+
+    // Đường xử lý của JwtAuthenticationFilter: token đã xác thực được lấy từ bộ đệm
+    @Benchmark
+    public String validateAndExtractUsernameCached() {
+        return jwtUtil.validateAndExtractUsername(token);
+    }
+}
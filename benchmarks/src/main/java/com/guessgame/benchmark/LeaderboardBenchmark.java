@@ -0,0 +1,90 @@
+package com.guessgame.benchmark;
+
+import com.guessgame.controller.GameController;
+import com.guessgame.dto.UserLeaderboardDTO;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.util.ETags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đọc bảng xếp hạng từ {@link LeaderboardIndex} và ánh xạ sang {@link UserLeaderboardDTO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"100000"})
+    public int users;
+
+    private LeaderboardIndex leaderboardIndex;
+
+    private GameController gameController;
+
+    @Setup
+    public void setUp() {
+        leaderboardIndex = new LeaderboardIndex(null);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int id = 1; id <= users; id++) {
+            leaderboardIndex.update(id, "user" + id, random.nextInt(10_000));
+        }
+        gameController = new GameController(null, leaderboardIndex, GameMetrics.noop(), null);
+        BenchmarkSupport.setField(gameController, "maxPageSize", 100);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<UserLeaderboardDTO>> top10() {
+        return gameController.getLeaderboard(0, 10, request());
+    }
+
+    // GET có điều kiện với ETag còn hiệu lực: 304, không đọc bảng xếp hạng
+    @Benchmark
+    public ResponseEntity<List<UserLeaderboardDTO>> top10NotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/leaderboard");
+        request.addHeader("If-None-Match", ETags.of(leaderboardIndex.version()));
+        return gameController.getLeaderboard(0, 10, new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    @Benchmark
+    public ResponseEntity<List<UserLeaderboardDTO>> deepPage() {
+        return gameController.getLeaderboard(users / 100 - 1, 100, request());
+    }
+
+    @Benchmark
+    public void scoreUpdate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = random.nextInt(users) + 1;
+        leaderboardIndex.update(id, "user" + id, random.nextInt(10_000));
+    }
+
+    @Benchmark
+    public LeaderboardIndex.Rank rank() {
+        return leaderboardIndex.rank("user" + (ThreadLocalRandom.current().nextInt(users) + 1), 2);
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/leaderboard"), new MockHttpServletResponse());
+    }
+}
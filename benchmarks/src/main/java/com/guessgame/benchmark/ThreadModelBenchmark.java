@@ -0,0 +1,162 @@
+package com.guessgame.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh platform thread (pool cố định như Tomcat) và virtual thread với tải đoán số nặng về khoá:
+ * mỗi request khoá bản ghi người dùng bằng SELECT ... FOR UPDATE, chờ thêm độ trễ mạng giả lập rồi UPDATE,
+ * giống GameService ở chế độ mặc định. Một phần request dồn vào một người dùng "nóng".
+ * <p>
+ * Số request dùng cơ sở dữ liệu cùng lúc chỉ bị giới hạn bởi pool Hikari ({@code poolSize}). Khi
+ * {@code platformThreads} nhỏ hơn {@code poolSize}, số luồng platform là nút thắt và virtual thread có lợi thế;
+ * khi {@code platformThreads} từ {@code poolSize} trở lên, pool kết nối là nút thắt với cả hai mô hình.
+ * <p>
+ * Chạy: {@code java -jar target/benchmarks.jar ThreadModelBenchmark}
+ * ({@code platformThreads} không ảnh hưởng tới virtual thread, có thể chỉ chạy một giá trị với
+ * {@code -p threadModel=virtual -p platformThreads=200}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ThreadModelBenchmark {
+
+    private static final int USERS = 1_000;
+
+    private static final int REQUESTS_PER_OP = 2_000;
+
+    @Param({"platform", "virtual"})
+    public String threadModel;
+
+    // Số luồng của pool platform: dưới poolSize (luồng là nút thắt) và 200 (server.tomcat.threads.max mặc định)
+    @Param({"16", "32", "200"})
+    public int platformThreads;
+
+    // Tỉ lệ request dồn vào người dùng nóng (0..100); với 0 không có tranh chấp khoá bản ghi
+    @Param({"0", "20"})
+    public int hotUserPercent;
+
+    // Độ trễ mạng giả lập cho mỗi round trip tới cơ sở dữ liệu
+    @Param({"1"})
+    public int roundTripMillis;
+
+    // Số kết nối tối đa (mức đồng thời mục tiêu tới cơ sở dữ liệu)
+    @Param({"64"})
+    public int poolSize;
+
+    private HikariDataSource dataSource;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:thread-model;MODE=PostgreSQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(30_000);
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS users");
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(255) UNIQUE, score INT, turns INT)");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users VALUES (?, ?, 0, 1000000000)")) {
+                for (int id = 1; id <= USERS; id++) {
+                    insert.setLong(1, id);
+                    insert.setString(2, "user" + id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        executor = "virtual".equals(threadModel)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    /**
+     * Một op gồm {@link #REQUESTS_PER_OP} request đoán số chạy đồng thời; throughput tính theo op/giây.
+     */
+    @Benchmark
+    public int lockHeavyGuessWorkload() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(REQUESTS_PER_OP);
+        for (int i = 0; i < REQUESTS_PER_OP; i++) {
+            futures.add(executor.submit(this::guess));
+        }
+        int wins = 0;
+        for (Future<Integer> future : futures) {
+            wins += future.get();
+        }
+        return wins;
+    }
+
+    private int guess() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = random.nextInt(100) < hotUserPercent ? "user1" : "user" + (random.nextInt(USERS) + 1);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            int score;
+            int turns;
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT score, turns FROM users WHERE username = ? FOR UPDATE")) {
+                select.setString(1, username);
+                try (ResultSet rs = select.executeQuery()) {
+                    rs.next();
+                    score = rs.getInt(1);
+                    turns = rs.getInt(2);
+                }
+            }
+            Thread.sleep(roundTripMillis);
+
+            int win = random.nextInt(5) == 0 ? 1 : 0;
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE users SET score = ?, turns = ? WHERE username = ?")) {
+                update.setInt(1, score + win);
+                update.setInt(2, turns - 1);
+                update.setString(3, username);
+                update.executeUpdate();
+            }
+            Thread.sleep(roundTripMillis);
+            connection.commit();
+            return win;
+        }
+    }
+}
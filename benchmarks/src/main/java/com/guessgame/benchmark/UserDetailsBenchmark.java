@@ -0,0 +1,97 @@
+package com.guessgame.benchmark;
+
+import com.guessgame.GuessNumberApplication;
+import com.guessgame.entity.User;
+import com.guessgame.repository.UserRepository;
+import com.guessgame.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code UserDetailsServiceImpl.loadUserByUsername} (truy vấn projection) và {@code loadPrincipal} (có bộ đệm)
+ * trên toàn bộ Spring context của ứng dụng (cổng ngẫu nhiên, vì SecurityConfig cần web context)
+ * với cơ sở dữ liệu H2 trong bộ nhớ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private ConfigurableApplicationContext context;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(GuessNumberApplication.class);
+        // Tham số dòng lệnh được ưu tiên hơn application.properties nên luôn chạy với H2
+        context = application.run(
+                "--spring.profiles.active=",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:user-details;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                // Migration Flyway viết cho PostgreSQL: với H2, Hibernate tự tạo lược đồ
+                "--spring.flyway.enabled=false",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.root=WARN");
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 1; i <= USERS; i++) {
+            users.add(User.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password("{noop}password")
+                    .role("USER")
+                    .build());
+        }
+        userRepository.saveAll(users);
+        userDetailsService = context.getBean(UserDetailsServiceImpl.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername(randomUsername());
+    }
+
+    @Benchmark
+    public UserDetails loadPrincipalCached() {
+        return userDetailsService.loadPrincipal(randomUsername());
+    }
+
+    private static String randomUsername() {
+        return "user" + (ThreadLocalRandom.current().nextInt(USERS) + 1);
+    }
+}
@@ -0,0 +1,107 @@
+package com.guessgame.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Client HTTP gọi các REST endpoint thật của ứng dụng.
+ */
+final class GameApiClient {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl;
+
+    GameApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Phản hồi đã đọc; {@code body} là null nếu không phải JSON.
+     */
+    record Response(int status, JsonNode body) {
+
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    Response register(String username) throws IOException, InterruptedException {
+        return post("/auth/register", null, Map.of(
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", PASSWORD));
+    }
+
+    Response login(String username) throws IOException, InterruptedException {
+        return post("/auth/login", null, Map.of("username", username, "password", PASSWORD));
+    }
+
+    Response guess(String token, int number) throws IOException, InterruptedException {
+        return post("/api/guess", token, Map.of("number", number));
+    }
+
+    Response buyTurns(String token) throws IOException, InterruptedException {
+        return post("/api/buy-turns", token, null);
+    }
+
+    Response leaderboard(String token, int page) throws IOException, InterruptedException {
+        return get("/api/leaderboard?page=" + page + "&size=10", token);
+    }
+
+    Response me(String token) throws IOException, InterruptedException {
+        return get("/api/me", token);
+    }
+
+    private Response post(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        return send(request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(publisher)
+                .build());
+    }
+
+    private Response get(String path, String token) throws IOException, InterruptedException {
+        return send(request(path, token).GET().build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private Response send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        JsonNode body = null;
+        if (response.body().length > 0) {
+            try {
+                body = objectMapper.readTree(response.body());
+            } catch (IOException e) {
+                // Phản hồi không phải JSON (ví dụ trang lỗi mặc định): chỉ dùng mã trạng thái
+            }
+        }
+        return new Response(response.statusCode(), body);
+    }
+}
@@ -0,0 +1,104 @@
+package com.guessgame.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ghi nhận độ trễ (micro giây, HdrHistogram) và kết quả của từng loại request.
+ * Số liệu trong giai đoạn khởi động được bỏ đi bằng {@link #reset()}.
+ */
+final class LatencyReport {
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> rejected = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(3));
+            rejected.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * @param status Mã HTTP, hoặc -1 nếu request không nhận được phản hồi.
+     */
+    void record(Operation operation, long latencyNanos, int status) {
+        recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (status < 0 || status >= 500 && status != 503) {
+            errors.get(operation).increment();
+        } else if (status >= 400) {
+            // 4xx nghiệp vụ (hết lượt, trùng username) và 503 (pool bcrypt đầy) là từ chối có chủ đích
+            rejected.get(operation).increment();
+        }
+    }
+
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        rejected.values().forEach(LongAdder::reset);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    void print(PrintStream out, long elapsedNanos, Path hgrmDir) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        Histogram total = new Histogram(3);
+        long totalRejected = 0;
+        long totalErrors = 0;
+
+        out.printf("%-12s %9s %9s %7s %10s %9s %9s %9s %9s%n",
+                "operation", "count", "rejected", "errors", "ops/s", "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            long rejectedCount = rejected.get(operation).sum();
+            long errorCount = errors.get(operation).sum();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalRejected += rejectedCount;
+            totalErrors += errorCount;
+            printRow(out, operation.label(), histogram, rejectedCount, errorCount, seconds);
+            if (hgrmDir != null) {
+                writeDistribution(hgrmDir.resolve(operation.label() + ".hgrm"), histogram);
+            }
+        }
+        printRow(out, "total", total, totalRejected, totalErrors, seconds);
+        if (hgrmDir != null) {
+            writeDistribution(hgrmDir.resolve("total.hgrm"), total);
+        }
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram,
+                                 long rejectedCount, long errorCount, double seconds) {
+        out.printf("%-12s %9d %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                label,
+                histogram.getTotalCount(),
+                rejectedCount,
+                errorCount,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    // Phân phối đầy đủ (định dạng .hgrm) để vẽ biểu đồ hoặc so sánh giữa các lần chạy
+    private static void writeDistribution(Path file, Histogram histogram) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+}
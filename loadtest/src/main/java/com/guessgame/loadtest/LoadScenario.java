@@ -0,0 +1,214 @@
+package com.guessgame.loadtest;
+
+import com.guessgame.loadtest.GameApiClient.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Kịch bản tải: nhiều người chơi mô phỏng gửi request theo tỉ lệ {@code mix}, trong đó một phần lượt đoán
+ * dồn vào một người chơi "nóng" để tạo tranh chấp khoá bản ghi.
+ * <p>
+ * Mặc định chạy vòng kín (mỗi luồng gửi request kế tiếp khi nhận phản hồi). Khi đặt {@code rate}, các luồng gửi
+ * theo lịch cố định và độ trễ được tính từ thời điểm dự kiến gửi, tránh che giấu thời gian chờ khi hệ thống
+ * chậm (coordinated omission).
+ */
+final class LoadScenario {
+
+    private static final int MAX_RETRIES = 100;
+
+    private final LoadTestOptions options;
+
+    private final GameApiClient client;
+
+    private final LatencyReport report = new LatencyReport();
+
+    private final Operation[] wheel;
+
+    // Username mới ở mỗi lần chạy để có thể chạy lại trên cùng một cơ sở dữ liệu
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private final List<Player> players = new ArrayList<>();
+
+    private Player hotPlayer;
+
+    private static final class Player {
+
+        private final String username;
+
+        private volatile String token;
+
+        private Player(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Response call() throws IOException, InterruptedException;
+    }
+
+    LoadScenario(LoadTestOptions options, GameApiClient client) {
+        this.options = options;
+        this.client = client;
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> weight : options.mix().entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                slots.add(weight.getKey());
+            }
+        }
+        this.wheel = slots.toArray(new Operation[0]);
+    }
+
+    /**
+     * Đăng ký, đăng nhập và mua lượt cho toàn bộ người chơi trước khi đo.
+     */
+    void prepare() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        try {
+            List<Callable<Player>> tasks = new ArrayList<>();
+            for (int i = 0; i < options.users(); i++) {
+                String username = "lt-" + runId + "-" + i;
+                tasks.add(() -> createPlayer(username));
+            }
+            for (Future<Player> player : executor.invokeAll(tasks)) {
+                players.add(player.get());
+            }
+            hotPlayer = createPlayer("lt-" + runId + "-hot");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Chạy giai đoạn khởi động rồi giai đoạn đo.
+     *
+     * @return Thời gian đo thực tế (nano giây).
+     */
+    long run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.concurrency());
+        long warmupEnd = System.nanoTime() + options.warmup().toNanos();
+        long end = warmupEnd + options.duration().toNanos();
+        for (int i = 0; i < options.concurrency(); i++) {
+            executor.execute(() -> work(end));
+        }
+
+        LockSupport.parkNanos(warmupEnd - System.nanoTime());
+        report.reset();
+        long measureStart = System.nanoTime();
+
+        executor.shutdown();
+        if (!executor.awaitTermination(options.duration().toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return System.nanoTime() - measureStart;
+    }
+
+    LatencyReport report() {
+        return report;
+    }
+
+    private void work(long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long interval = options.rate() > 0 ? (long) (options.concurrency() * 1e9 / options.rate()) : 0;
+        // Lệch pha ban đầu để các luồng không gửi cùng lúc
+        long next = System.nanoTime() + (interval > 0 ? random.nextLong(interval) : 0);
+        try {
+            while (true) {
+                long start;
+                if (interval > 0) {
+                    LockSupport.parkNanos(next - System.nanoTime());
+                    start = next;
+                    next += interval;
+                } else {
+                    start = System.nanoTime();
+                }
+                if (start >= end) {
+                    return;
+                }
+                execute(wheel[random.nextInt(wheel.length)], random, start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void execute(Operation operation, ThreadLocalRandom random, long start) throws InterruptedException {
+        Player player = players.get(random.nextInt(players.size()));
+        switch (operation) {
+            case REGISTER -> timed(Operation.REGISTER, start,
+                    () -> client.register("lt-" + runId + "-r" + registrations.incrementAndGet()));
+            case LOGIN -> {
+                Response response = timed(Operation.LOGIN, start, () -> client.login(player.username));
+                if (response.ok()) {
+                    player.token = response.body().get("token").asText();
+                }
+            }
+            case GUESS, GUESS_HOT -> {
+                boolean hot = operation == Operation.GUESS_HOT || random.nextDouble() < options.hotRatio();
+                Player target = hot ? hotPlayer : player;
+                int number = random.nextInt(5) + 1;
+                Response response = timed(hot ? Operation.GUESS_HOT : Operation.GUESS, start,
+                        () -> client.guess(target.token, number));
+                if (response.status() == 400) {
+                    // Hết lượt: mua thêm như người chơi thật
+                    timed(Operation.BUY_TURNS, System.nanoTime(), () -> client.buyTurns(target.token));
+                }
+            }
+            case BUY_TURNS -> timed(Operation.BUY_TURNS, start, () -> client.buyTurns(player.token));
+            case LEADERBOARD -> {
+                int page = random.nextInt(5);
+                timed(Operation.LEADERBOARD, start, () -> client.leaderboard(player.token, page));
+            }
+            case ME -> timed(Operation.ME, start, () -> client.me(player.token));
+        }
+    }
+
+    private Response timed(Operation operation, long start, Call call) throws InterruptedException {
+        Response response;
+        try {
+            response = call.call();
+        } catch (IOException e) {
+            response = new Response(-1, null);
+        }
+        report.record(operation, System.nanoTime() - start, response.status());
+        return response;
+    }
+
+    private Player createPlayer(String username) throws IOException, InterruptedException {
+        Response registered = withRetry(() -> client.register(username));
+        if (!registered.ok()) {
+            throw new IllegalStateException("Register " + username + " failed with HTTP " + registered.status());
+        }
+        Response login = withRetry(() -> client.login(username));
+        if (!login.ok()) {
+            throw new IllegalStateException("Login " + username + " failed with HTTP " + login.status());
+        }
+        String token = login.body().get("token").asText();
+        client.buyTurns(token);
+        return new Player(username, token);
+    }
+
+    // Pool bcrypt trả 503 khi đầy: chờ rồi thử lại
+    private static Response withRetry(Call call) throws IOException, InterruptedException {
+        Response response = call.call();
+        for (int attempt = 1; response.status() == 503 && attempt < MAX_RETRIES; attempt++) {
+            Thread.sleep(50L * Math.min(attempt, 10));
+            response = call.call();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,74 @@
+package com.guessgame.loadtest;
+
+import com.guessgame.GuessNumberApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chạy bài kiểm thử tải đầu-cuối.
+ * <p>
+ * Mặc định khởi động PostgreSQL nhúng và ứng dụng (cổng ngẫu nhiên) trong cùng tiến trình; với
+ * {@code --base-url=...} thì gửi tải tới một server đang chạy sẵn.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            String baseUrl = options.baseUrl();
+            if (baseUrl == null) {
+                postgres = EmbeddedPostgres.builder().start();
+                application = startApplication(postgres, options.appProperties());
+                baseUrl = "http://localhost:" + ((WebServerApplicationContext) application).getWebServer().getPort();
+            }
+
+            LoadScenario scenario = new LoadScenario(options, new GameApiClient(baseUrl));
+            System.out.printf("Target %s, %d users, %d threads, hot-ratio %.2f, mix %s%n",
+                    baseUrl, options.users(), options.concurrency(), options.hotRatio(), options.mix());
+            System.out.println(options.rate() > 0
+                    ? String.format("Open loop at %.0f req/s (latency measured from intended send time)", options.rate())
+                    : "Closed loop (each thread waits for the previous response)");
+
+            scenario.prepare();
+            System.out.printf("Warm-up %ds, measuring %ds...%n", options.warmup().toSeconds(), options.duration().toSeconds());
+            long elapsed = scenario.run();
+            scenario.report().print(System.out, elapsed, options.hgrmDir());
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(EmbeddedPostgres postgres,
+                                                                   Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+        properties.put("spring.datasource.username", "postgres");
+        properties.put("spring.datasource.password", "");
+        // Không ghi đè cấu hình log: lần chạy mặc định đo đúng cấu hình mặc định (có log SQL),
+        // so sánh với --spring.profiles.active=prod để thấy tác động của profile production
+        // Mọi người chơi mô phỏng dùng chung một IP; bật lại bằng --rate-limit.enabled=true để đo cả giới hạn tần suất
+        properties.put("rate-limit.enabled", "false");
+        properties.putAll(overrides);
+
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return SpringApplication.run(GuessNumberApplication.class, args);
+    }
+}
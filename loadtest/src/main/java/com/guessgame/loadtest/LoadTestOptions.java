@@ -0,0 +1,62 @@
+package com.guessgame.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tham số của bài kiểm thử tải, đọc từ dòng lệnh dạng {@code --key=value}.
+ * Các tham số không thuộc bài kiểm thử (ví dụ {@code --spring.profiles.active=...}) được chuyển cho ứng dụng.
+ */
+record LoadTestOptions(String baseUrl,
+                       int users,
+                       int concurrency,
+                       Duration warmup,
+                       Duration duration,
+                       double hotRatio,
+                       double rate,
+                       Map<Operation, Integer> mix,
+                       Path hgrmDir,
+                       Map<String, String> appProperties) {
+
+    static final String DEFAULT_MIX = "register=2,login=5,guess=60,buy-turns=8,leaderboard=15,me=10";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("base-url"),
+                Integer.parseInt(values.getOrDefault("users", "200")),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Double.parseDouble(values.getOrDefault("hot-ratio", "0.2")),
+                Double.parseDouble(values.getOrDefault("rate", "0")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                values.containsKey("hgrm-dir") ? Path.of(values.get("hgrm-dir")) : null,
+                new LinkedHashMap<>());
+        for (String key : new String[]{"users", "concurrency", "warmup", "duration", "hot-ratio", "rate", "mix", "hgrm-dir"}) {
+            values.remove(key);
+        }
+        options.appProperties().putAll(values);
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            weights.put(Operation.fromLabel(pair[0]), Integer.parseInt(pair[1]));
+        }
+        return weights;
+    }
+}
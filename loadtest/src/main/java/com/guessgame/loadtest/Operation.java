@@ -0,0 +1,35 @@
+package com.guessgame.loadtest;
+
+/**
+ * Các loại request trong kịch bản tải.
+ */
+enum Operation {
+
+    REGISTER("register"),
+    LOGIN("login"),
+    GUESS("guess"),
+    // Lượt đoán của người chơi "nóng": mọi luồng cùng khoá một bản ghi (findByUsernameForUpdate)
+    GUESS_HOT("guess-hot"),
+    BUY_TURNS("buy-turns"),
+    LEADERBOARD("leaderboard"),
+    ME("me");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equals(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + label);
+    }
+}
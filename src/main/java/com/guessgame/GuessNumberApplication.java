@@ -1,13 +1,22 @@
 package com.guessgame;
 
+import com.guessgame.service.GameEventReplay;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GuessNumberApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(GuessNumberApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(GuessNumberApplication.class, args);
+        // Profile chạy một lần (không phục vụ HTTP): đóng ứng dụng và trả mã thoát của tác vụ
+        if (context.getEnvironment().acceptsProfiles(Profiles.of(GameEventReplay.PROFILE))) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
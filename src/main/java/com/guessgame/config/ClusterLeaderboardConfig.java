@@ -0,0 +1,35 @@
+package com.guessgame.config;
+
+import com.guessgame.service.ClusterLeaderboard;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.service.LeaderboardTransport;
+import com.guessgame.service.LoopbackLeaderboardTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bật đồng bộ bảng xếp hạng giữa các node khi {@code game.cluster.enabled=true}.
+ * Transport mặc định là loopback; khai báo một bean {@link LeaderboardTransport} khác để thay thế.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "game.cluster", name = "enabled", havingValue = "true")
+public class ClusterLeaderboardConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LeaderboardTransport leaderboardTransport() {
+        return new LoopbackLeaderboardTransport();
+    }
+
+    @Bean
+    public ClusterLeaderboard clusterLeaderboard(LeaderboardIndex leaderboardIndex,
+                                                 LeaderboardTransport leaderboardTransport,
+                                                 @Value("${game.cluster.node-id:}") String nodeId,
+                                                 @Value("${game.cluster.top-k:100}") int topK,
+                                                 @Value("${game.cluster.sync-interval-ms:500}") long syncIntervalMs) {
+        return new ClusterLeaderboard(leaderboardIndex, leaderboardTransport, nodeId, topK, syncIntervalMs);
+    }
+}
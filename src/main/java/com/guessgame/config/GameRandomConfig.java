@@ -0,0 +1,20 @@
+package com.guessgame.config;
+
+import com.guessgame.service.GameRandom;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class GameRandomConfig {
+
+    /**
+     * Bộ sinh số ngẫu nhiên của trò chơi: mặc định theo từng luồng,
+     * hoặc cố định theo {@code game.rng.seed} để kết quả lặp lại được.
+     */
+    @Bean
+    public GameRandom gameRandom(Environment environment) {
+        Long seed = environment.getProperty("game.rng.seed", Long.class);
+        return seed == null ? GameRandom.threadLocal() : GameRandom.seeded(seed);
+    }
+}
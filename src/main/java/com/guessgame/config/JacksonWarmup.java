@@ -0,0 +1,48 @@
+package com.guessgame.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guessgame.dto.BuyTurnsResponse;
+import com.guessgame.dto.GuessBatchResponse;
+import com.guessgame.dto.GuessResponse;
+import com.guessgame.dto.PaymentConfirmResponse;
+import com.guessgame.dto.PaymentOrderResponse;
+import com.guessgame.dto.ProfileResponse;
+import com.guessgame.dto.UserLeaderboardDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Dựng sẵn serializer của Jackson cho các DTO phản hồi khi khởi động, để request đầu tiên
+ * không phải introspect lớp và tạo serializer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JacksonWarmup {
+
+    private static final List<Class<?>> RESPONSE_TYPES = List.of(
+            GuessResponse.class,
+            GuessBatchResponse.class,
+            BuyTurnsResponse.class,
+            ProfileResponse.class,
+            PaymentOrderResponse.class,
+            PaymentConfirmResponse.class,
+            UserLeaderboardDTO.class);
+
+    private final ObjectMapper objectMapper;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        for (Class<?> type : RESPONSE_TYPES) {
+            // canSerialize tạo và lưu serializer vào bộ đệm của ObjectMapper
+            if (!objectMapper.canSerialize(type)) {
+                log.warn("Không tạo được serializer cho {}", type.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.guessgame.config;
+
+import com.guessgame.security.GcraRateLimiter;
+import com.guessgame.security.InMemoryRateLimitStore;
+import com.guessgame.security.RateLimitStore;
+import com.guessgame.security.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+/**
+ * Chọn bộ giới hạn tần suất theo {@code rate-limit.backend}:
+ * <ul>
+ *     <li>{@code local}: trạng thái trong bộ nhớ của từng node.</li>
+ *     <li>{@code shared}: trạng thái trong bean {@link RateLimitStore} dùng chung giữa các node (ví dụ Redis);
+ *     nếu không có bean nào, dùng {@link InMemoryRateLimitStore} làm bản thay thế trong JVM.</li>
+ * </ul>
+ * Giá trị khác làm ứng dụng dừng ngay khi khởi động với thông báo rõ ràng.
+ */
+@Slf4j
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(@Value("${rate-limit.backend:local}") String backend,
+                                   @Value("${rate-limit.max-keys:100000}") int maxKeys,
+                                   @Value("${rate-limit.entry-ttl-ms:600000}") long entryTtlMs,
+                                   Optional<RateLimitStore> sharedStore) {
+        return switch (backend.trim()) {
+            case "local" -> new GcraRateLimiter(new InMemoryRateLimitStore(maxKeys), System::nanoTime, entryTtlMs);
+            case "shared" -> {
+                RateLimitStore store = sharedStore.orElseGet(() -> {
+                    log.warn("rate-limit.backend=shared nhưng không có bean RateLimitStore, dùng kho trong bộ nhớ của node này");
+                    return new InMemoryRateLimitStore(maxKeys);
+                });
+                yield new GcraRateLimiter(store, GcraRateLimiter::epochNanos, entryTtlMs);
+            }
+            default -> throw new IllegalStateException("Không hỗ trợ rate-limit.backend=" + backend
+                    + ", giá trị hợp lệ: local, shared");
+        };
+    }
+}
@@ -1,12 +1,13 @@
 package com.guessgame.config;
 
 import com.guessgame.security.JwtAuthenticationFilter;
+import com.guessgame.security.RateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -23,6 +24,8 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtFilter;
 
+    private final RateLimitFilter rateLimitFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors(Customizer.withDefaults());
@@ -33,21 +36,25 @@ public class SecurityConfig {
                 session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
 
         http.authorizeHttpRequests(auth -> auth
+                // Lần dispatch ASYNC (trả kết quả của CompletableFuture) đã được xác thực ở request ban đầu
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
+                // Cho Prometheus scrape; trên production nên chặn /actuator ở reverse proxy hoặc dùng management.server.port riêng
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                // EventSource của trình duyệt không gửi được header Authorization; top-K là dữ liệu công khai
+                .requestMatchers("/api/leaderboard/stream").permitAll()
                 .anyRequest().authenticated()
         );
 
         http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        // Giới hạn tần suất trước khi xác thực JWT, để request bị từ chối không tốn thêm tài nguyên
+        http.addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
+    // Độ khó bcrypt; mật khẩu cũ có độ khó thấp hơn sẽ được băm lại khi đăng nhập thành công (AuthService)
     @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration http) throws Exception {
-        return http.getAuthenticationManager();
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -2,14 +2,18 @@ package com.guessgame.controller;
 
 import com.guessgame.dto.LoginRequest;
 import com.guessgame.dto.RegisterRequest;
+import com.guessgame.dto.UserCredentialsView;
 import com.guessgame.entity.User;
+import com.guessgame.metrics.GameMetrics;
 import com.guessgame.repository.UserRepository;
 import com.guessgame.security.JwtUtil;
+import com.guessgame.security.PasswordHashingService;
+import com.guessgame.service.AuthService;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.service.RegistrationIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -20,15 +24,20 @@ import org.springframework.http.HttpStatus;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 public class AuthController {
-    private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LeaderboardIndex leaderboardIndex;
+    private final PasswordHashingService passwordHashingService;
+    private final AuthService authService;
+    private final RegistrationIndex registrationIndex;
+    private final GameMetrics gameMetrics;
 
     /**
      * Xử lý đăng nhập người dùng.
@@ -37,22 +46,22 @@ public class AuthController {
      * @return ResponseEntity chứa token JWT nếu đăng nhập thành công, hoặc thông báo lỗi nếu thất bại.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-            );
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("message", "Thông tin đăng nhập không hợp lệ.\nVui lòng kiểm tra lại tên người dùng và mật khẩu."));
-        }
-
-        Optional<User> optUser = userRepository.findByUsername(loginRequest.getUsername());
-        User user = optUser.orElseThrow(() ->
-                new UsernameNotFoundException("Tên người dùng không tìm thấy: " + loginRequest.getUsername()));
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
+        // Truy vấn người dùng trên luồng request; pool bcrypt chỉ làm việc kiểm tra mật khẩu,
+        // phần còn lại (ghi hash mới, tạo token) chạy trên pool follow-up có giới hạn
+        Optional<UserCredentialsView> credentials = authService.findCredentials(loginRequest.getUsername());
+        return passwordHashingService.<Optional<AuthService.Verified>, ResponseEntity<?>>submit(
+                () -> authService.verify(credentials, loginRequest.getPassword()),
+                verified -> {
+                    if (verified.isEmpty()) {
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(Map.of("message", "Thông tin đăng nhập không hợp lệ.\nVui lòng kiểm tra lại tên người dùng và mật khẩu."));
+                    }
 
-        String token = jwtUtil.generateToken(user.getUsername());
-        return ResponseEntity.ok().body(Collections.singletonMap("token", token));
+                    // Token được cấp cho chính username đã xác thực, không cần truy vấn lại người dùng
+                    String token = jwtUtil.generateToken(authService.completeLogin(verified.get()));
+                    return ResponseEntity.ok().body(Collections.singletonMap("token", token));
+                });
     }
 
     /**
@@ -62,25 +71,63 @@ public class AuthController {
      * @return ResponseEntity chứa thông báo thành công hoặc lỗi nếu đăng ký không thành công.
      */
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("message", "Tên người dùng đã tồn tại. Vui lòng chọn tên khác."));
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody RegisterRequest registerRequest) {
+        String username = registerRequest.getUsername();
+        String email = registerRequest.getEmail();
+        if (username == null || username.isBlank() || email == null || email.isBlank()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(Map.of("message", "Vui lòng nhập đầy đủ tên người dùng và email.")));
         }
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
-            return ResponseEntity.badRequest()
-                    .body(Map.of("message", "Email đã được sử dụng. Vui lòng sử dụng email khác."));
+        // Chỉ truy vấn cơ sở dữ liệu khi chỉ mục trong bộ nhớ không chắc chắn username/email còn trống
+        if (registrationIndex.mightContainUsername(username) && userRepository.existsByUsername(username)) {
+            return CompletableFuture.completedFuture(usernameTaken());
+        }
+        if (registrationIndex.mightContainEmail(email) && userRepository.existsByEmail(email)) {
+            return CompletableFuture.completedFuture(emailTaken());
+        }
+
+        // Chỉ băm mật khẩu (bcrypt) trên pool riêng; lưu người dùng chạy trên pool follow-up có giới hạn
+        // để luồng bcrypt không bị giữ trong lúc chờ cơ sở dữ liệu
+        return passwordHashingService.<String, ResponseEntity<?>>submit(
+                () -> encode(registerRequest.getPassword()),
+                encodedPassword -> {
+                    User user = User.builder()
+                            .username(username)
+                            .password(encodedPassword)
+                            .email(email)
+                            .role("USER") // Role mặc định, có thể thay đổi nếu cần
+                            .build();
+                    try {
+                        userRepository.save(user);
+                    } catch (DataIntegrityViolationException e) {
+                        // Ràng buộc unique là nơi quyết định cuối cùng (đăng ký đồng thời hoặc trên node khác)
+                        registrationIndex.add(username, email);
+                        return userRepository.existsByUsername(username) ? usernameTaken() : emailTaken();
+                    }
+                    registrationIndex.add(username, email);
+                    leaderboardIndex.update(user.getId(), user.getUsername(), user.getScore());
+                    return ResponseEntity.ok(
+                            Map.of("message", "Đăng ký thành công! Bạn có thể đăng nhập ngay bây giờ.")
+                    );
+                });
+    }
+
+    private String encode(String rawPassword) {
+        long start = gameMetrics.start();
+        try {
+            return passwordEncoder.encode(rawPassword);
+        } finally {
+            gameMetrics.recordBcryptRegister(start);
         }
+    }
+
+    private static ResponseEntity<?> usernameTaken() {
+        return ResponseEntity.badRequest()
+                .body(Map.of("message", "Tên người dùng đã tồn tại. Vui lòng chọn tên khác."));
+    }
 
-        User user = User.builder()
-                .username(registerRequest.getUsername())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
-                .email(registerRequest.getEmail())
-                .role("USER") // Role mặc định, có thể thay đổi nếu cần
-                .build();
-        userRepository.save(user);
-        return ResponseEntity.ok(
-                Map.of("message", "Đăng ký thành công! Bạn có thể đăng nhập ngay bây giờ.")
-        );
+    private static ResponseEntity<?> emailTaken() {
+        return ResponseEntity.badRequest()
+                .body(Map.of("message", "Email đã được sử dụng. Vui lòng sử dụng email khác."));
     }
-}
\ No newline at end of file
+}
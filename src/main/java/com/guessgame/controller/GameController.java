@@ -1,35 +1,53 @@
 package com.guessgame.controller;
 
+import com.guessgame.dto.BuyTurnsResponse;
+import com.guessgame.dto.GuessBatchRequest;
+import com.guessgame.dto.GuessBatchResponse;
+import com.guessgame.dto.GuessBatchResult;
 import com.guessgame.dto.GuessRequest;
+import com.guessgame.dto.GuessResponse;
+import com.guessgame.dto.GuessResult;
 import com.guessgame.dto.UserLeaderboardDTO;
-import com.guessgame.entity.User;
 import com.guessgame.exception.GuessNumberException;
-import com.guessgame.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.service.GameService;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.service.LeaderboardStream;
+import com.guessgame.util.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class GameController {
-    private final UserRepository userRepository;
+    private final GameService gameService;
 
-    private final Random random = new Random();
+    private final LeaderboardIndex leaderboardIndex;
 
-    private static final int TURNS_TO_BUY = 5; // Số lượt mua
+    private final GameMetrics gameMetrics;
 
-    private static final int POINTS_PER_WIN = 1; // Số điểm cộng cho mỗi lượt chơi
+    private final LeaderboardStream leaderboardStream;
 
-    private static final int MAX_SERVER_NUMBER = 5; // Số lớn nhất mà máy chủ có thể chọn
+    private static final String BUY_TURNS_MESSAGE = "Bạn đã mua thành công " + GameService.TURNS_TO_BUY + " lượt chơi.";
 
-    private static final double WIN_PROBABILITY = 0.05; // Xác suất thắng của người chơi
+    @Value("${game.leaderboard.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${game.leaderboard.cache-max-age-seconds:2}")
+    private long leaderboardMaxAgeSeconds;
 
     /**
      * Xử lý dự đoán số của người dùng.
@@ -39,97 +57,97 @@ public class GameController {
      * @return ResponseEntity chứa thông báo kết quả dự đoán, số máy chủ đã chọn, điểm số và lượt chơi còn lại.
      * Nếu số dự đoán không hợp lệ (không nằm trong khoảng từ 1 đến 5) hoặc người dùng không còn lượt chơi, ném ra GuessNumberException.
      * @throws GuessNumberException nếu số dự đoán không hợp lệ hoặc người dùng không còn lượt chơi.
-     *                              * @Transactional để đảm bảo tính nhất quán trong việc cập nhật lượt chơi và điểm số của người dùng.
      */
-    @Transactional
     @PostMapping("/guess")
-    public ResponseEntity<?> guess(@AuthenticationPrincipal UserDetails userDetails,
-                                   @RequestBody GuessRequest request) {
-        User currentUser = findUserByUserDetailsWithLock(userDetails);
-        int turnsLeft = currentUser.getTurns();
-        if (turnsLeft <= 0) {
-            throw new GuessNumberException("Bạn không còn lượt chơi nào! Vui lòng mua thêm lượt chơi.");
-        }
-
-        int number = request.getNumber();
-        if (number < 1 || number > 5) {
-            throw new GuessNumberException("Số dự đoán phải nằm trong khoảng từ 1 đến 5!");
-        }
-
-        currentUser.setTurns(currentUser.getTurns() - 1);
-
-        // Máy chủ chọn một số ngẫu nhiên từ 1 đến MAX_SERVER_NUMBER
-        int serverNumber = random.nextInt(MAX_SERVER_NUMBER) + 1;
-        // Người chơi thắng nếu số dự đoán trùng với số máy chủ hoặc theo xác suất thắng
-        boolean isUserWin = random.nextDouble() < WIN_PROBABILITY || number == serverNumber;
-        if (isUserWin) {
-            currentUser.setScore(currentUser.getScore() + POINTS_PER_WIN);
+    public ResponseEntity<GuessResponse> guess(@AuthenticationPrincipal UserDetails userDetails,
+                                               @RequestBody GuessRequest request) {
+        long start = gameMetrics.start();
+        GuessResult result;
+        try {
+            result = gameService.guess(userDetails.getUsername(), request.getNumber());
+        } finally {
+            gameMetrics.recordGuess(start);
         }
-
-        userRepository.save(currentUser);
-        String message = isUserWin
-                ? String.format("Chúc mừng! Bạn đã đoán đúng số: %d, bạn được cộng %d điểm.", serverNumber, POINTS_PER_WIN)
-                : String.format("Rất tiếc! Bạn đã đoán sai số: %d, số đúng là %d", number, serverNumber);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", message);
-        response.put("serverNumber", serverNumber);
-        response.put("score", currentUser.getScore());
-        response.put("turns", currentUser.getTurns());
-
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(GuessResponse.of(result));
     }
 
     /**
-     * Mua thêm lượt chơi cho người dùng hiện tại.
+     * Xử lý nhiều lượt đoán số trong một request, dùng một lần khoá và một lần ghi bản ghi người dùng.
+     * Các lượt được chơi theo thứ tự cho đến khi hết danh sách hoặc hết lượt chơi.
      *
      * @param userDetails Thông tin người dùng đã đăng nhập.
-     * @return Map<String, Object>
-     * Thông báo thành công và số lượt chơi còn lại.
+     * @param request     Chứa danh sách số dự đoán của người dùng.
+     * @return ResponseEntity chứa kết quả từng lượt đoán, số lượt đã chơi, điểm số và lượt chơi còn lại.
+     * @throws GuessNumberException nếu danh sách không hợp lệ hoặc người dùng không còn lượt chơi.
      */
-    @PostMapping("/buy-turns")
-    public Map<String, Object> buyAdditionalTurns(@AuthenticationPrincipal UserDetails userDetails) {
-        User currentUser = findUserByUserDetails(userDetails);
-
-        currentUser.setTurns(currentUser.getTurns() + TURNS_TO_BUY);
-        userRepository.save(currentUser);
-
-        return Map.of("message", "Bạn đã mua thành công " + TURNS_TO_BUY + " lượt chơi.",
-                "turnsLeft", currentUser.getTurns());
+    @PostMapping("/guess/batch")
+    public ResponseEntity<GuessBatchResponse> guessBatch(@AuthenticationPrincipal UserDetails userDetails,
+                                                         @RequestBody GuessBatchRequest request) {
+        GuessBatchResult result = gameService.guessBatch(userDetails.getUsername(), request.getNumbers());
+        return ResponseEntity.ok(GuessBatchResponse.of(result));
     }
 
     /**
-     * Lấy danh sách người dùng hàng đầu theo điểm số.
+     * Mua thêm lượt chơi cho người dùng hiện tại.
      *
-     * @return List<UserLeaderboardDTO> Danh sách người dùng với tên và điểm số, sắp xếp theo điểm số giảm dần.
+     * @param userDetails Thông tin người dùng đã đăng nhập.
+     * @return BuyTurnsResponse thông báo thành công và số lượt chơi còn lại.
      */
-    @GetMapping("/leaderboard")
-    public List<UserLeaderboardDTO> getLeaderboard() {
-        return userRepository.findTop10ByOrderByScoreDesc()
-                .stream()
-                .map(user -> new UserLeaderboardDTO(user.getUsername(), user.getScore()))
-                .toList();
+    @PostMapping("/buy-turns")
+    public BuyTurnsResponse buyAdditionalTurns(@AuthenticationPrincipal UserDetails userDetails) {
+        int turnsLeft = gameService.creditTurns(userDetails.getUsername(), GameService.TURNS_TO_BUY);
+        return new BuyTurnsResponse(BUY_TURNS_MESSAGE, turnsLeft);
     }
 
     /**
-     * Tìm người dùng theo thông tin đăng nhập.
+     * Lấy danh sách người dùng hàng đầu theo điểm số từ bảng xếp hạng trong bộ nhớ.
+     * Hỗ trợ GET có điều kiện: ETag/Last-Modified theo phiên bản của bảng xếp hạng, trả 304 khi không đổi
+     * mà không đọc hay serialize dữ liệu.
      *
-     * @param userDetails Thông tin người dùng đã đăng nhập.
-     * @return User
+     * @param page       Số trang (tính từ 0).
+     * @param size       Số người dùng mỗi trang (tối đa game.leaderboard.max-page-size).
+     * @param webRequest Request hiện tại (đọc If-None-Match/If-Modified-Since).
+     * @return ResponseEntity chứa danh sách người dùng với tên và điểm số, sắp xếp theo điểm số giảm dần.
      */
-    private User findUserByUserDetails(UserDetails userDetails) {
-        return userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy"));
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<UserLeaderboardDTO>> getLeaderboard(@RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "10") int size,
+                                                                   WebRequest webRequest) {
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new GuessNumberException("Tham số phân trang không hợp lệ!");
+        }
+        // Phiên bản được đọc trước dữ liệu: nếu bảng xếp hạng đổi trong lúc đọc, lần sau client nhận 200 thay vì 304
+        String etag = ETags.of(leaderboardIndex.version());
+        long lastModified = leaderboardIndex.lastModified();
+        CacheControl cacheControl = CacheControl.maxAge(leaderboardMaxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            // checkNotModified đã ghi ETag/Last-Modified cho phản hồi 304
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+
+        long start = gameMetrics.start();
+        List<UserLeaderboardDTO> leaderboard;
+        try {
+            // Tính bằng long: page * size có thể tràn số int với page lớn
+            long offset = (long) page * size;
+            leaderboard = offset >= leaderboardIndex.size() ? List.of() : leaderboardIndex.page((int) offset, size)
+                    .stream()
+                    .map(entry -> new UserLeaderboardDTO(entry.username(), entry.score()))
+                    .toList();
+        } finally {
+            gameMetrics.recordLeaderboard(start);
+        }
+        return ResponseEntity.ok().eTag(etag).lastModified(lastModified).cacheControl(cacheControl).body(leaderboard);
     }
 
     /**
-     * Tìm người dùng theo thông tin đăng nhập với khóa.
+     * Nhận bảng xếp hạng trực tiếp qua Server-Sent Events thay vì gọi lại {@code /api/leaderboard} định kỳ.
+     * Sự kiện {@code leaderboard} chứa top-K hiện tại, được gửi ngay khi kết nối và mỗi khi top-K thay đổi.
      *
-     * @param userDetails Thông tin người dùng đã đăng nhập.
-     * @return User
+     * @return SseEmitter của kết nối.
      */
-    private User findUserByUserDetailsWithLock(UserDetails userDetails) {
-        return userRepository.findByUsernameForUpdate(userDetails.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy"));
+    @GetMapping(value = "/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard() {
+        return leaderboardStream.subscribe();
     }
 }
@@ -1,8 +1,13 @@
 package com.guessgame.controller;
 
-import com.guessgame.entity.User;
-import com.guessgame.repository.UserRepository;
+import com.guessgame.dto.PaymentConfirmResponse;
+import com.guessgame.dto.PaymentOrderResponse;
+import com.guessgame.entity.PaymentOrder;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.service.PaymentService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,50 +15,73 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/payment/momo")
 @RequiredArgsConstructor
 public class PaymentController {
-    private final UserRepository userRepository;
+    private final PaymentService paymentService;
+
+    private final GameMetrics gameMetrics;
+
+    @Value("${payment.credit.timeout-ms:5000}")
+    private long creditTimeoutMs;
 
     private static final int TURNS_TO_BUY = 5;
 
+    private static final String CREATE_MESSAGE = "Vui lòng bấm 'Xác nhận thanh toán' để mua lượt!";
+
+    private static final String DEFERRED_MESSAGE = "Thanh toán đã được xác nhận, lượt chơi sẽ được cộng trong giây lát.";
+
+    private static final String DUPLICATE_MESSAGE = "Đơn hàng đã được xác nhận trước đó.";
+
+    private static final String CREDITED_MESSAGE = "Bạn đã mua thành công " + TURNS_TO_BUY + " lượt chơi bằng MOMO (giả lập)."
+            + "Tổng số lượt chơi hiện tại: ";
+
     /**
      * Khởi tạo thanh toán MOMO (giả lập).
      *
      * @param userDetails Thông tin người dùng đã đăng nhập.
-     * @return Map chứa thông tin đơn hàng và link thanh toán giả lập.
+     * @return PaymentOrderResponse chứa thông tin đơn hàng và link thanh toán giả lập.
      */
     @PostMapping("/create")
-    public Map<String, Object> createPayment(@AuthenticationPrincipal UserDetails userDetails) {
-        return Map.of(
-                "orderId", System.currentTimeMillis(),
-                "payUrl", "https://momo.vn/fake-payment?orderId=123456", // link giả lập!
-                "message", "Vui lòng bấm 'Xác nhận thanh toán' để mua lượt!"
-        );
+    public PaymentOrderResponse createPayment(@AuthenticationPrincipal UserDetails userDetails) {
+        PaymentOrder order = paymentService.createOrder(userDetails.getUsername(), TURNS_TO_BUY);
+        // Id trả về dạng chuỗi vì id 63 bit vượt quá số nguyên an toàn của JavaScript
+        String orderId = String.valueOf(order.getId());
+        return new PaymentOrderResponse(orderId,
+                "https://momo.vn/fake-payment?orderId=" + orderId, // link giả lập!
+                CREATE_MESSAGE);
     }
 
     /**
-     * Xác nhận thanh toán MOMO (giả lập).
+     * Xác nhận thanh toán MOMO (giả lập). Xác nhận lặp lại cùng một đơn hàng không cộng thêm lượt chơi.
      *
      * @param userDetails Thông tin người dùng đã đăng nhập.
-     * @param orderId     ID đơn hàng (giả lập).
-     * @return Map chứa thông báo thành công và số lượt chơi còn lại.
+     * @param orderId     ID đơn hàng trả về từ /create.
+     * @return PaymentConfirmResponse chứa thông báo và số lượt chơi còn lại (nếu đã cộng xong).
      */
     @PostMapping("/confirm")
-    public Map<String, Object> confirmPayment(@AuthenticationPrincipal UserDetails userDetails,
-                                              @RequestParam Long orderId) {
-        User currentUser = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow();
-        currentUser.setTurns(currentUser.getTurns() + TURNS_TO_BUY);
-        userRepository.save(currentUser);
-
-        return Map.of(
-                "message", "Bạn đã mua thành công " + TURNS_TO_BUY + " lượt chơi bằng MOMO (giả lập)." + "Tổng số lượt chơi hiện tại: " + currentUser.getTurns(),
-                "turnsLeft", currentUser.getTurns()
-        );
+    public CompletableFuture<PaymentConfirmResponse> confirmPayment(@AuthenticationPrincipal UserDetails userDetails,
+                                                                    @RequestParam Long orderId) {
+        long start = gameMetrics.start();
+        return paymentService.confirmOrder(userDetails.getUsername(), orderId)
+                .orTimeout(creditTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((turnsLeft, ex) -> {
+                    gameMetrics.recordPaymentConfirm(start, ex != null ? null : turnsLeft != null);
+                    if (ex != null) {
+                        // Đơn hàng đã ở trạng thái PAID, lượt chơi sẽ được cộng khi quét lại
+                        log.warn("Chưa cộng được lượt chơi cho đơn hàng {}: {}", orderId, ex.toString());
+                        return new PaymentConfirmResponse(String.valueOf(orderId), DEFERRED_MESSAGE, null);
+                    }
+                    if (turnsLeft == null) {
+                        return new PaymentConfirmResponse(String.valueOf(orderId), DUPLICATE_MESSAGE, null);
+                    }
+                    return new PaymentConfirmResponse(String.valueOf(orderId), CREDITED_MESSAGE + turnsLeft, turnsLeft);
+                });
     }
 
 }
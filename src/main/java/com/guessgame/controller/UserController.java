@@ -1,30 +1,94 @@
 package com.guessgame.controller;
 
-import com.guessgame.entity.User;
+import com.guessgame.dto.ProfileResponse;
+import com.guessgame.dto.UserProfileView;
+import com.guessgame.dto.UserRankDTO;
+import com.guessgame.exception.GuessNumberException;
 import com.guessgame.repository.UserRepository;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.service.TurnLedger;
+import com.guessgame.util.ETags;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class UserController {
     private final UserRepository userRepository;
+    private final TurnLedger turnLedger;
+    private final LeaderboardIndex leaderboardIndex;
 
+    private static final int MAX_RANK_NEIGHBOURS = 10; // Số người chơi lân cận tối đa mỗi phía
+
+    /**
+     * Lấy hồ sơ của người dùng hiện tại. Hỗ trợ GET có điều kiện: ETag được tính từ chính dữ liệu trả về
+     * (email, điểm số, lượt chơi) nên giống nhau trên mọi node, trả 304 khi hồ sơ không đổi.
+     *
+     * @param userDetails Thông tin người dùng đã đăng nhập.
+     * @param webRequest  Request hiện tại (đọc If-None-Match).
+     * @return ResponseEntity chứa ProfileResponse (email, điểm số và lượt chơi còn lại).
+     */
     @GetMapping("/me")
-    public Map<String, Object> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userRepository.findByUsername(userDetails.getUsername()).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    public ResponseEntity<ProfileResponse> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails,
+                                                          WebRequest webRequest) {
+        UserProfileView profile = userRepository.findProfileByUsername(userDetails.getUsername()).orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        // Khi bật sổ cái trong bộ nhớ, lượt chơi/điểm số mới nhất nằm trong sổ cái chứ không phải cơ sở dữ liệu
+        TurnLedger.Snapshot snapshot = turnLedger.find(userDetails.getUsername())
+                .orElseGet(() -> new TurnLedger.Snapshot(profile.score(), profile.turns()));
+        ProfileResponse body = new ProfileResponse(profile.email(), snapshot.score(), snapshot.turns());
+
+        String etag = ETags.ofContent(body.score() + "-" + body.turnsLeft() + "-" + Integer.toHexString(Objects.hashCode(body.email())));
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body);
+    }
+
+    /**
+     * Lấy thứ hạng của người dùng hiện tại và các người dùng xếp ngay trên/dưới.
+     *
+     * @param userDetails Thông tin người dùng đã đăng nhập.
+     * @param neighbours  Số người dùng lân cận lấy thêm ở mỗi phía (tối đa 10).
+     * @return Map chứa thứ hạng, điểm số, tổng số người chơi và danh sách lân cận.
+     */
+    @GetMapping("/me/rank")
+    public Map<String, Object> getCurrentUserRank(@AuthenticationPrincipal UserDetails userDetails,
+                                                  @RequestParam(defaultValue = "2") int neighbours) {
+        if (neighbours < 0 || neighbours > MAX_RANK_NEIGHBOURS) {
+            throw new GuessNumberException("Số người chơi lân cận phải nằm trong khoảng từ 0 đến " + MAX_RANK_NEIGHBOURS + "!");
+        }
+        LeaderboardIndex.Rank rank = leaderboardIndex.rank(userDetails.getUsername(), neighbours);
+        if (rank == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+
+        List<UserRankDTO> around = new ArrayList<>(rank.neighbours().size());
+        for (int i = 0; i < rank.neighbours().size(); i++) {
+            LeaderboardIndex.Entry entry = rank.neighbours().get(i);
+            around.add(new UserRankDTO(rank.firstRank() + i, entry.username(), entry.score()));
+        }
         return Map.of(
-                "email", user.getEmail(),
-                "score", user.getScore(),
-                "turnsLeft", user.getTurns()
+                "rank", rank.rank(),
+                "score", rank.entry().score(),
+                "totalPlayers", rank.total(),
+                "neighbours", around
         );
     }
 }
@@ -0,0 +1,10 @@
+package com.guessgame.dto;
+
+/**
+ * Phản hồi của {@code POST /api/buy-turns}.
+ *
+ * @param message   Thông báo mua lượt thành công.
+ * @param turnsLeft Số lượt chơi sau khi mua.
+ */
+public record BuyTurnsResponse(String message, int turnsLeft) {
+}
@@ -0,0 +1,12 @@
+package com.guessgame.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class GuessBatchRequest {
+    private List<Integer> numbers;
+}
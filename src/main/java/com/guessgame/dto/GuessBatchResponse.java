@@ -0,0 +1,21 @@
+package com.guessgame.dto;
+
+import java.util.List;
+
+/**
+ * Phản hồi của {@code POST /api/guess/batch}.
+ *
+ * @param message Thông báo số lượt đã chơi.
+ * @param results Kết quả từng lượt đoán.
+ * @param played  Số lượt đã chơi.
+ * @param score   Điểm số sau các lượt chơi.
+ * @param turns   Số lượt chơi còn lại.
+ */
+public record GuessBatchResponse(String message, List<GuessResult> results, int played, int score, int turns) {
+
+    public static GuessBatchResponse of(GuessBatchResult result) {
+        int played = result.results().size();
+        return new GuessBatchResponse("Bạn đã chơi " + played + " lượt.", result.results(), played,
+                result.score(), result.turns());
+    }
+}
@@ -0,0 +1,13 @@
+package com.guessgame.dto;
+
+import java.util.List;
+
+/**
+ * Kết quả của một loạt lượt đoán số được xử lý trong cùng một request.
+ *
+ * @param results Kết quả từng lượt đoán, theo thứ tự gửi lên.
+ * @param score   Điểm số sau loạt lượt chơi.
+ * @param turns   Số lượt chơi còn lại sau loạt lượt chơi.
+ */
+public record GuessBatchResult(List<GuessResult> results, int score, int turns) {
+}
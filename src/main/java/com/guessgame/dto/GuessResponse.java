@@ -0,0 +1,39 @@
+package com.guessgame.dto;
+
+import com.guessgame.service.GameService;
+
+/**
+ * Phản hồi của {@code POST /api/guess}.
+ *
+ * @param message      Thông báo kết quả.
+ * @param serverNumber Số máy chủ đã chọn.
+ * @param score        Điểm số sau lượt chơi.
+ * @param turns        Số lượt chơi còn lại.
+ */
+public record GuessResponse(String message, int serverNumber, int score, int turns) {
+
+    private static final int MAX_NUMBER = 5;
+
+    // Thông báo được dựng sẵn cho mọi tổ hợp (số đoán, số máy chủ), không định dạng chuỗi ở mỗi request
+    private static final String[] WIN_MESSAGES = new String[MAX_NUMBER + 1];
+
+    private static final String[][] LOSE_MESSAGES = new String[MAX_NUMBER + 1][MAX_NUMBER + 1];
+
+    static {
+        for (int serverNumber = 1; serverNumber <= MAX_NUMBER; serverNumber++) {
+            WIN_MESSAGES[serverNumber] = String.format("Chúc mừng! Bạn đã đoán đúng số: %d, bạn được cộng %d điểm.",
+                    serverNumber, GameService.POINTS_PER_WIN);
+            for (int number = 1; number <= MAX_NUMBER; number++) {
+                LOSE_MESSAGES[number][serverNumber] = String.format("Rất tiếc! Bạn đã đoán sai số: %d, số đúng là %d",
+                        number, serverNumber);
+            }
+        }
+    }
+
+    public static GuessResponse of(GuessResult result) {
+        String message = result.win()
+                ? WIN_MESSAGES[result.serverNumber()]
+                : LOSE_MESSAGES[result.number()][result.serverNumber()];
+        return new GuessResponse(message, result.serverNumber(), result.score(), result.turns());
+    }
+}
@@ -0,0 +1,13 @@
+package com.guessgame.dto;
+
+/**
+ * Kết quả của một lượt đoán số.
+ *
+ * @param number       Số người chơi đã đoán.
+ * @param serverNumber Số máy chủ đã chọn.
+ * @param win          Người chơi có thắng lượt này hay không.
+ * @param score        Điểm số sau lượt chơi.
+ * @param turns        Số lượt chơi còn lại sau lượt chơi.
+ */
+public record GuessResult(int number, int serverNumber, boolean win, int score, int turns) {
+}
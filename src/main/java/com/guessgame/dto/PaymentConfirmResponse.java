@@ -0,0 +1,14 @@
+package com.guessgame.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Phản hồi của {@code POST /api/payment/momo/confirm}.
+ *
+ * @param orderId   Id đơn hàng.
+ * @param message   Thông báo kết quả xác nhận.
+ * @param turnsLeft Số lượt chơi sau khi cộng, không có nếu lượt chơi chưa được cộng trong request này.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaymentConfirmResponse(String orderId, String message, Integer turnsLeft) {
+}
@@ -0,0 +1,11 @@
+package com.guessgame.dto;
+
+/**
+ * Phản hồi của {@code POST /api/payment/momo/create}.
+ *
+ * @param orderId Id đơn hàng (dạng chuỗi vì id 63 bit vượt quá số nguyên an toàn của JavaScript).
+ * @param payUrl  Link thanh toán giả lập.
+ * @param message Hướng dẫn cho người dùng.
+ */
+public record PaymentOrderResponse(String orderId, String payUrl, String message) {
+}
@@ -0,0 +1,11 @@
+package com.guessgame.dto;
+
+/**
+ * Phản hồi của {@code GET /api/me}.
+ *
+ * @param email     Email của người dùng.
+ * @param score     Điểm số hiện tại.
+ * @param turnsLeft Số lượt chơi còn lại.
+ */
+public record ProfileResponse(String email, int score, int turnsLeft) {
+}
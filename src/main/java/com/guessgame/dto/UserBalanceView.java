@@ -0,0 +1,7 @@
+package com.guessgame.dto;
+
+/**
+ * Projection id, lượt chơi và điểm số của người dùng.
+ */
+public record UserBalanceView(Long id, int turns, int score) {
+}
@@ -0,0 +1,7 @@
+package com.guessgame.dto;
+
+/**
+ * Projection thông tin đăng nhập của người dùng (username, mật khẩu đã mã hoá, quyền).
+ */
+public record UserCredentialsView(String username, String password, String role) {
+}
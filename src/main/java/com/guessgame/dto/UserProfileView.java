@@ -0,0 +1,7 @@
+package com.guessgame.dto;
+
+/**
+ * Projection thông tin hồ sơ người dùng cho {@code /api/me} (không nạp toàn bộ entity User).
+ */
+public record UserProfileView(String email, int score, int turns) {
+}
@@ -0,0 +1,19 @@
+package com.guessgame.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserRankDTO {
+    private int rank;
+    private String username;
+    private int score;
+
+    public UserRankDTO(int rank, String username, int score) {
+        this.rank = rank;
+        this.username = username;
+        this.score = score;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.guessgame.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Một sự kiện trong nhật ký {@code game_events} (chỉ thêm, không sửa).
+ * Được ghi theo lô bởi {@link com.guessgame.service.GameEventLog}; tổng {@code scoreDelta}/{@code turnsDelta}
+ * theo người dùng (kể cả sự kiện {@link GameEventType#OPENING_BALANCE}) cho ra điểm số và lượt chơi hiện tại.
+ */
+@Entity
+@Table(name = "game_events", indexes = @Index(name = "idx_game_events_username", columnList = "username"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GameEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private GameEventType type;
+
+    @Column(nullable = false)
+    private String username;
+
+    // Chỉ có với GUESS
+    private Integer guess;
+
+    private Integer serverNumber;
+
+    private Boolean win;
+
+    private int scoreDelta;
+
+    private int turnsDelta;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
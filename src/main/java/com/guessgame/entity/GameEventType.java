@@ -0,0 +1,13 @@
+package com.guessgame.entity;
+
+/**
+ * Loại sự kiện trong nhật ký {@code game_events}.
+ */
+public enum GameEventType {
+    // Một lượt đoán số: trừ một lượt chơi, cộng điểm nếu thắng
+    GUESS,
+    // Cộng lượt chơi (mua thủ công hoặc qua thanh toán)
+    TURNS_CREDITED,
+    // Số dư có sẵn trước khi bắt đầu ghi nhật ký (ghi một lần bởi migration), để tổng sự kiện bằng số dư hiện tại
+    OPENING_BALANCE
+}
@@ -0,0 +1,55 @@
+package com.guessgame.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "payment_orders")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentOrder implements Persistable<Long> {
+
+    // Id được sinh trong ứng dụng (OrderIdGenerator), không dùng sequence của cơ sở dữ liệu
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    private int turns;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PaymentStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant confirmedAt;
+
+    private Instant creditedAt;
+
+    // Id được gán sẵn nên cần tự đánh dấu bản ghi mới, để save() chỉ INSERT mà không SELECT trước
+    @Transient
+    @Builder.Default
+    private boolean newOrder = true;
+
+    @Override
+    public boolean isNew() {
+        return newOrder;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newOrder = false;
+    }
+}
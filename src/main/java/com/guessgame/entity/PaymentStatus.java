@@ -0,0 +1,13 @@
+package com.guessgame.entity;
+
+/**
+ * Trạng thái của đơn hàng thanh toán.
+ */
+public enum PaymentStatus {
+    // Đơn hàng vừa được tạo, chưa thanh toán
+    PENDING,
+    // Đã xác nhận thanh toán, đang chờ cộng lượt chơi
+    PAID,
+    // Đã cộng lượt chơi cho người dùng
+    CREDITED
+}
@@ -5,9 +5,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "users")
+// UPDATE chỉ ghi các cột thay đổi (thường chỉ turns/score), không ghi lại password/email/role
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,219 @@
+package com.guessgame.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các meter của trò chơi, đăng nhập và thanh toán, xuất ra qua {@code /actuator/prometheus}.
+ * <p>
+ * Mọi meter được đăng ký sẵn khi khởi động nên đường xử lý chỉ gọi {@code System.nanoTime()} và ghi vào
+ * meter có sẵn, không tra cứu hay tạo tag. Khi tắt {@code game.metrics.enabled}, các phương thức ghi
+ * không làm gì và {@link #start()} không đọc đồng hồ.
+ * Timer mặc định chỉ có count/sum/max; bật bucket khi cần bằng
+ * {@code management.metrics.distribution.percentiles-histogram.<tên meter>=true}.
+ */
+@Component
+public class GameMetrics {
+
+    private final boolean enabled;
+
+    private final Timer guessTimer;
+
+    private final Timer lockWaitTimer;
+
+    private final Counter wins;
+
+    private final Counter losses;
+
+    private final Timer jwtVerifyTimer;
+
+    private final Counter jwtInvalid;
+
+    private final Timer bcryptLoginTimer;
+
+    private final Timer bcryptRegisterTimer;
+
+    private final Timer leaderboardTimer;
+
+    private final Timer paymentConfirmTimer;
+
+    private final Counter paymentCredited;
+
+    private final Counter paymentDuplicate;
+
+    private final Counter paymentDeferred;
+
+    private final Map<String, Counter> rateLimited;
+
+    private final Timer gameEventsFlushTimer;
+
+    private final Counter gameEventsWritten;
+
+    private final Counter gameEventsDropped;
+
+    private final Counter gameEventsRetries;
+
+    public GameMetrics(MeterRegistry registry, @Value("${game.metrics.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        // Registry không có registry con: meter trả về là no-op
+        MeterRegistry target = enabled ? registry : new CompositeMeterRegistry();
+
+        guessTimer = Timer.builder("game.guess")
+                .description("Thời gian xử lý một lượt đoán số")
+                .register(target);
+        lockWaitTimer = Timer.builder("game.guess.lock.wait")
+                .description("Thời gian chờ khoá bản ghi người dùng (SELECT ... FOR UPDATE)")
+                .register(target);
+        wins = Counter.builder("game.guess.result").tag("result", "win")
+                .description("Số lượt đoán theo kết quả")
+                .register(target);
+        losses = Counter.builder("game.guess.result").tag("result", "loss")
+                .description("Số lượt đoán theo kết quả")
+                .register(target);
+        jwtVerifyTimer = Timer.builder("auth.jwt.verify")
+                .description("Thời gian xác thực JWT trong JwtAuthenticationFilter")
+                .register(target);
+        jwtInvalid = Counter.builder("auth.jwt.invalid")
+                .description("Số JWT không hợp lệ hoặc hết hạn")
+                .register(target);
+        bcryptLoginTimer = Timer.builder("auth.bcrypt").tag("operation", "login")
+                .description("Thời gian băm/kiểm tra mật khẩu bcrypt")
+                .register(target);
+        bcryptRegisterTimer = Timer.builder("auth.bcrypt").tag("operation", "register")
+                .description("Thời gian băm/kiểm tra mật khẩu bcrypt")
+                .register(target);
+        leaderboardTimer = Timer.builder("game.leaderboard")
+                .description("Thời gian đọc một trang bảng xếp hạng")
+                .register(target);
+        paymentConfirmTimer = Timer.builder("payment.confirm")
+                .description("Thời gian xác nhận thanh toán và cộng lượt chơi")
+                .register(target);
+        paymentCredited = Counter.builder("payment.confirm.result").tag("result", "credited")
+                .description("Số lần xác nhận thanh toán theo kết quả")
+                .register(target);
+        paymentDuplicate = Counter.builder("payment.confirm.result").tag("result", "duplicate")
+                .description("Số lần xác nhận thanh toán theo kết quả")
+                .register(target);
+        paymentDeferred = Counter.builder("payment.confirm.result").tag("result", "deferred")
+                .description("Số lần xác nhận thanh toán theo kết quả")
+                .register(target);
+        rateLimited = Map.of(
+                "auth", rateLimitedCounter(target, "auth"),
+                "guess", rateLimitedCounter(target, "guess"));
+        gameEventsFlushTimer = Timer.builder("game.events.flush")
+                .description("Thời gian ghi một lô sự kiện vào game_events")
+                .register(target);
+        gameEventsWritten = Counter.builder("game.events.written")
+                .description("Số sự kiện đã ghi vào game_events")
+                .register(target);
+        gameEventsDropped = Counter.builder("game.events.dropped")
+                .description("Số sự kiện không được ghi (còn trong hàng đợi khi dừng ứng dụng hoặc luồng bị ngắt)")
+                .register(target);
+        gameEventsRetries = Counter.builder("game.events.retries")
+                .description("Số lần ghi một lô sự kiện bị lỗi và phải thử lại")
+                .register(target);
+    }
+
+    private static Counter rateLimitedCounter(MeterRegistry registry, String rule) {
+        return Counter.builder("ratelimit.rejected").tag("rule", rule)
+                .description("Số request bị từ chối do vượt giới hạn tần suất")
+                .register(registry);
+    }
+
+    /**
+     * Meter no-op, dùng khi dựng bean bên ngoài Spring context (kiểm thử, benchmark).
+     */
+    public static GameMetrics noop() {
+        return new GameMetrics(new CompositeMeterRegistry(), false);
+    }
+
+    /**
+     * @return Thời điểm bắt đầu (nano giây) để truyền cho các phương thức {@code record...}.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void recordGuess(long start) {
+        record(guessTimer, start);
+    }
+
+    public void recordLockWait(long start) {
+        record(lockWaitTimer, start);
+    }
+
+    public void recordGuessResult(boolean win) {
+        if (enabled) {
+            (win ? wins : losses).increment();
+        }
+    }
+
+    public void recordJwtVerify(long start, boolean valid) {
+        record(jwtVerifyTimer, start);
+        if (enabled && !valid) {
+            jwtInvalid.increment();
+        }
+    }
+
+    public void recordBcryptLogin(long start) {
+        record(bcryptLoginTimer, start);
+    }
+
+    public void recordBcryptRegister(long start) {
+        record(bcryptRegisterTimer, start);
+    }
+
+    public void recordLeaderboard(long start) {
+        record(leaderboardTimer, start);
+    }
+
+    /**
+     * @param credited true nếu đã cộng lượt, false nếu đơn hàng đã xác nhận trước đó,
+     *                 null nếu việc cộng lượt được để lại cho lần quét sau.
+     */
+    public void recordPaymentConfirm(long start, Boolean credited) {
+        record(paymentConfirmTimer, start);
+        if (enabled) {
+            (credited == null ? paymentDeferred : credited ? paymentCredited : paymentDuplicate).increment();
+        }
+    }
+
+    public void recordRateLimited(String rule) {
+        Counter counter = rateLimited.get(rule);
+        if (enabled && counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void recordGameEventsWritten(long start, int count) {
+        record(gameEventsFlushTimer, start);
+        if (enabled) {
+            gameEventsWritten.increment(count);
+        }
+    }
+
+    public void recordGameEventsDropped(int count) {
+        if (enabled) {
+            gameEventsDropped.increment(count);
+        }
+    }
+
+    public void recordGameEventsRetried() {
+        if (enabled) {
+            gameEventsRetries.increment();
+        }
+    }
+
+    private void record(Timer timer, long start) {
+        if (enabled) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
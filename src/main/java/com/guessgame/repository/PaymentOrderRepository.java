@@ -0,0 +1,32 @@
+package com.guessgame.repository;
+
+import com.guessgame.entity.PaymentOrder;
+import com.guessgame.entity.PaymentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, Long> {
+
+    Optional<PaymentOrder> findByIdAndUsername(Long id, String username);
+
+    // Tìm các đơn hàng đã thanh toán nhưng chưa được cộng lượt chơi trước thời điểm cho trước
+    List<PaymentOrder> findByStatusAndConfirmedAtBefore(PaymentStatus status, Instant confirmedAt);
+
+    // Chuyển đơn hàng từ PENDING sang PAID; chỉ lần xác nhận đầu tiên cập nhật được bản ghi
+    @Modifying
+    @Transactional
+    @Query("UPDATE PaymentOrder o SET o.status = :paid, o.confirmedAt = :confirmedAt " +
+            "WHERE o.id = :id AND o.username = :username AND o.status = :pending")
+    int markPaid(@Param("id") Long id,
+                 @Param("username") String username,
+                 @Param("confirmedAt") Instant confirmedAt,
+                 @Param("pending") PaymentStatus pending,
+                 @Param("paid") PaymentStatus paid);
+}
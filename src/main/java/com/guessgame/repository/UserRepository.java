@@ -1,27 +1,52 @@
 package com.guessgame.repository;
 
+import com.guessgame.dto.UserBalanceView;
+import com.guessgame.dto.UserCredentialsView;
+import com.guessgame.dto.UserProfileView;
 import com.guessgame.entity.User;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
-
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
-    // Tìm top 10 người dùng có điểm cao nhất
-    List<User> findTop10ByOrderByScoreDesc();
-
     // Khoá bản ghi người dùng theo username để tránh cập nhật đồng thời
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT u FROM User u WHERE u.username = :username")
     Optional<User> findByUsernameForUpdate(@Param("username") String username);
+
+    // Cộng lượt chơi bằng một câu lệnh UPDATE nguyên tử, trả về số lượt chơi sau khi cộng.
+    // Không dùng @Modifying: nhờ RETURNING câu lệnh được chạy như truy vấn và trả về giá trị mới
+    // (với @Modifying chỉ nhận được số dòng bị ảnh hưởng). Rỗng nếu username không tồn tại.
+    @Transactional
+    @Query(value = "UPDATE users SET turns = turns + :turns WHERE username = :username RETURNING turns", nativeQuery = true)
+    Optional<Integer> incrementTurns(@Param("username") String username, @Param("turns") int turns);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    // Các truy vấn chỉ đọc dưới đây trả về projection, không nạp entity vào persistence context
+
+    @Query("SELECT new com.guessgame.dto.UserProfileView(u.email, u.score, u.turns) FROM User u WHERE u.username = :username")
+    Optional<UserProfileView> findProfileByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.guessgame.dto.UserCredentialsView(u.username, u.password, u.role) FROM User u WHERE u.username = :username")
+    Optional<UserCredentialsView> findCredentialsByUsername(@Param("username") String username);
+
+    @Query("SELECT u.role FROM User u WHERE u.username = :username")
+    Optional<String> findRoleByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.guessgame.dto.UserBalanceView(u.id, u.turns, u.score) FROM User u WHERE u.username = :username")
+    Optional<UserBalanceView> findBalanceByUsername(@Param("username") String username);
 }
@@ -0,0 +1,55 @@
+package com.guessgame.security;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Giới hạn tần suất theo thuật toán GCRA (dạng token bucket chỉ cần một số nguyên cho mỗi khoá).
+ * <p>
+ * Mỗi khoá giữ "thời điểm đến lý thuyết" (TAT) của request kế tiếp trong một {@link RateLimitStore}, cập nhật
+ * bằng compare-and-set nên không cần khoá. Request bị từ chối khi TAT vượt quá thời điểm hiện tại hơn lượng
+ * burst cho phép. Mỗi lần truy cập gia hạn khoá thêm {@code rate-limit.entry-ttl-ms}.
+ * <p>
+ * Bean được tạo trong {@link com.guessgame.config.RateLimitConfig}: với {@code rate-limit.backend=local} kho nằm
+ * trong bộ nhớ và đồng hồ là {@link System#nanoTime()}; với {@code shared} kho được dùng chung giữa các node nên
+ * đồng hồ là thời gian thực ({@link #epochNanos()}) và các node cần được đồng bộ giờ.
+ */
+public class GcraRateLimiter implements RateLimiter {
+
+    private final RateLimitStore store;
+
+    // Đồng hồ (nano giây) dùng cho TAT
+    private final LongSupplier nanoClock;
+
+    private final long entryTtlMs;
+
+    public GcraRateLimiter(RateLimitStore store, LongSupplier nanoClock, long entryTtlMs) {
+        this.store = store;
+        this.nanoClock = nanoClock;
+        this.entryTtlMs = entryTtlMs;
+    }
+
+    /**
+     * Thời gian thực tính bằng nano giây kể từ epoch, so sánh được giữa các node.
+     */
+    public static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitRule rule) {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            Long current = store.get(key, entryTtlMs);
+            long earliest = current == null ? now : Math.max(current, now);
+            long allowedAt = earliest - rule.burstToleranceNanos();
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (store.compareAndSet(key, current, earliest + rule.emissionIntervalNanos(), entryTtlMs)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.guessgame.security;
+
+import com.guessgame.util.BoundedExpiringCache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link RateLimitStore} trong bộ nhớ của JVM: mỗi khoá là một {@link AtomicLong} trong bộ đệm có giới hạn.
+ * <p>
+ * Dùng cho {@code rate-limit.backend=local}, và làm bản thay thế của kho dùng chung cho {@code shared}
+ * khi không có bean {@link RateLimitStore} nào khác (chỉ dùng chung giữa các limiter trong cùng tiến trình).
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final BoundedExpiringCache<String, AtomicLong> entries;
+
+    // Đồng hồ (epoch millis) dùng để tính thời điểm hết hạn của khoá
+    private final LongSupplier clock;
+
+    public InMemoryRateLimitStore(int maxKeys) {
+        this(maxKeys, System::currentTimeMillis);
+    }
+
+    public InMemoryRateLimitStore(int maxKeys, LongSupplier clock) {
+        this.entries = new BoundedExpiringCache<>(maxKeys, clock);
+        this.clock = clock;
+    }
+
+    @Override
+    public Long get(String key, long ttlMs) {
+        AtomicLong tat = entries.touch(key, clock.getAsLong() + ttlMs);
+        return tat == null ? null : tat.get();
+    }
+
+    @Override
+    public boolean compareAndSet(String key, Long expected, long update, long ttlMs) {
+        long expiresAt = clock.getAsLong() + ttlMs;
+        if (expected == null) {
+            // Tạo nguyên tử: chỉ một trong các request đồng thời của khoá mới tạo được
+            AtomicLong created = new AtomicLong(update);
+            return entries.putIfAbsent(key, created, expiresAt) == created;
+        }
+        AtomicLong tat = entries.touch(key, expiresAt);
+        return tat != null && tat.compareAndSet(expected, update);
+    }
+}
@@ -1,15 +1,22 @@
 package com.guessgame.security;
 
+import com.guessgame.util.BoundedExpiringCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 
 import io.jsonwebtoken.security.Keys;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 
 @Component
@@ -21,8 +28,17 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
     private Key key;
 
+    // Parser dựng sẵn một lần, dùng chung cho mọi request (thread-safe)
+    private JwtParser parser;
+
+    // Token đã xác thực chữ ký: SHA-256(token) -> username, hết hạn cùng lúc với token
+    private BoundedExpiringCache<ByteBuffer, String> verifiedTokens;
+
     @PostConstruct
     public void init() {
         if (secretKey == null || secretKey.length() < 32) {
@@ -30,6 +46,10 @@ public class JwtUtil {
         }
 
         key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        verifiedTokens = new BoundedExpiringCache<>(cacheMaxSize);
     }
 
     public String generateToken(String username) {
@@ -41,28 +61,64 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Xác thực token và lấy username chỉ với một lần parse.
+     * Token đã xác thực được lưu đệm đến khi hết hạn, nên các request sau dùng lại cùng token
+     * không phải kiểm tra chữ ký lần nữa.
+     *
+     * @param token JWT token.
+     * @return Username trong token.
+     * @throws io.jsonwebtoken.JwtException nếu token không hợp lệ hoặc đã hết hạn.
+     */
+    public String validateAndExtractUsername(String token) {
+        ByteBuffer cacheKey = ByteBuffer.wrap(sha256(token));
+        String username = verifiedTokens.get(cacheKey);
+        if (username != null) {
+            return username;
+        }
+
+        Claims claims = parseClaims(token);
+        username = claims.getSubject();
+        Date expirationDate = claims.getExpiration();
+        if (username != null && expirationDate != null) {
+            verifiedTokens.put(cacheKey, username, expirationDate.getTime());
+        }
+        return username;
+    }
+
+    /**
+     * Lấy username của token đã được xác thực trước đó (còn trong bộ đệm), không kiểm tra chữ ký.
+     *
+     * @return Username, hoặc null nếu token chưa từng được xác thực hoặc đã hết hạn.
+     */
+    public String cachedUsername(String token) {
+        return verifiedTokens.get(ByteBuffer.wrap(sha256(token)));
+    }
+
     public boolean validateToken(String token, String userDetails) {
-        String username = extractUsername(token);
-        return (username.equals(userDetails) && !isTokenExpired(token));
+        Claims claims = parseClaims(token);
+        return (userDetails.equals(claims.getSubject()) && !claims.getExpiration().before(new Date()));
     }
 
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public boolean isTokenExpired(String token) {
-        Date expirationDate = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
+        Date expirationDate = parseClaims(token).getExpiration();
         return expirationDate.before(new Date());
     }
 
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
 }
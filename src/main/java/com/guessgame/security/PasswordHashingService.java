@@ -0,0 +1,85 @@
+package com.guessgame.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Chạy các thao tác bcrypt (mã hoá, kiểm tra mật khẩu) trên một pool luồng riêng có giới hạn.
+ * <p>
+ * Luồng Tomcat không bị giữ trong lúc băm mật khẩu, và số luồng bcrypt bị giới hạn bởi
+ * {@code security.bcrypt.pool-size} nên các request khác (ví dụ: đoán số) vẫn còn CPU để xử lý.
+ * Khi hàng đợi ({@code security.bcrypt.queue-capacity}) đầy, tác vụ mới bị từ chối ngay bằng
+ * {@link RejectedExecutionException} thay vì xếp hàng vô hạn.
+ * <p>
+ * Phần việc sau khi băm (truy vấn/ghi cơ sở dữ liệu, tạo token) chạy trên một pool thứ hai cũng có giới hạn
+ * ({@code security.bcrypt.follow-up-pool-size}, {@code security.bcrypt.follow-up-queue-capacity}), để luồng bcrypt
+ * không phải chờ cơ sở dữ liệu và khi quá tải request cũng bị từ chối thay vì dồn vào hàng đợi vô hạn.
+ */
+@Component
+public class PasswordHashingService {
+
+    private final ThreadPoolExecutor executor;
+
+    private final ThreadPoolExecutor followUpExecutor;
+
+    public PasswordHashingService(@Value("${security.bcrypt.pool-size:0}") int poolSize,
+                                  @Value("${security.bcrypt.queue-capacity:100}") int queueCapacity,
+                                  @Value("${security.bcrypt.follow-up-pool-size:10}") int followUpPoolSize,
+                                  @Value("${security.bcrypt.follow-up-queue-capacity:100}") int followUpQueueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = boundedExecutor("bcrypt-", threads, queueCapacity);
+        this.followUpExecutor = boundedExecutor("auth-follow-up-", followUpPoolSize, followUpQueueCapacity);
+    }
+
+    private static ThreadPoolExecutor boundedExecutor(String namePrefix, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Chạy tác vụ trên pool bcrypt.
+     *
+     * @param task Tác vụ cần chạy (thường là băm hoặc kiểm tra mật khẩu).
+     * @return CompletableFuture chứa kết quả của tác vụ.
+     * @throws RejectedExecutionException nếu pool đang quá tải.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Chạy tác vụ trên pool bcrypt, sau đó chạy phần việc tiếp theo trên pool follow-up.
+     *
+     * @param task     Tác vụ băm hoặc kiểm tra mật khẩu.
+     * @param followUp Phần việc dùng kết quả của tác vụ (truy vấn/ghi cơ sở dữ liệu, tạo token).
+     * @return CompletableFuture chứa kết quả của phần việc tiếp theo; hoàn thành với
+     * {@link RejectedExecutionException} nếu pool follow-up đang quá tải.
+     * @throws RejectedExecutionException nếu pool bcrypt đang quá tải.
+     */
+    public <T, R> CompletableFuture<R> submit(Supplier<T> task, Function<? super T, ? extends R> followUp) {
+        return submit(task).thenApplyAsync(followUp, followUpExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        followUpExecutor.shutdown();
+    }
+}
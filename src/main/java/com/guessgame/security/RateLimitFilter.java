@@ -0,0 +1,121 @@
+package com.guessgame.security;
+
+import com.guessgame.metrics.GameMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Giới hạn tần suất request, chạy trước {@link JwtAuthenticationFilter} nên request bị từ chối không tốn
+ * truy vấn cơ sở dữ liệu, kiểm tra chữ ký JWT hay băm bcrypt.
+ * <ul>
+ *     <li>{@code /auth/login}, {@code /auth/register}: theo địa chỉ IP.</li>
+ *     <li>{@code /api/guess}, {@code /api/guess/batch}: theo username nếu token đã được xác thực trước đó
+ *     (tra bộ đệm của {@link JwtUtil}), ngược lại theo địa chỉ IP.</li>
+ * </ul>
+ * Request vượt giới hạn nhận 429 kèm {@code Retry-After}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS_BODY =
+            "{\"message\":\"Bạn thao tác quá nhanh, vui lòng thử lại sau giây lát.\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+
+    private final JwtUtil jwtUtil;
+
+    private final GameMetrics gameMetrics;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.auth.per-second:5}")
+    private double authPerSecond;
+
+    @Value("${rate-limit.auth.burst:20}")
+    private int authBurst;
+
+    @Value("${rate-limit.guess.per-second:20}")
+    private double guessPerSecond;
+
+    @Value("${rate-limit.guess.burst:40}")
+    private int guessBurst;
+
+    private RateLimitRule authRule;
+
+    private RateLimitRule guessRule;
+
+    @PostConstruct
+    public void init() {
+        authRule = RateLimitRule.of("auth", authPerSecond, authBurst);
+        guessRule = RateLimitRule.of("guess", guessPerSecond, guessBurst);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getServletPath();
+        RateLimitRule rule;
+        String key;
+        if (path.equals("/auth/login") || path.equals("/auth/register")) {
+            rule = authRule;
+            key = "ip:" + request.getRemoteAddr();
+        } else if (path.equals("/api/guess") || path.equals("/api/guess/batch")) {
+            rule = guessRule;
+            key = guessKey(request);
+        } else {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(rule.name() + ":" + key, rule);
+        if (waitNanos > 0) {
+            gameMetrics.recordRateLimited(rule.name());
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String guessKey(HttpServletRequest request) {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            // Chỉ dùng username của token đã được xác thực chữ ký, không tin nội dung token chưa kiểm tra
+            String username = jwtUtil.cachedUsername(authHeader.substring(7));
+            if (username != null) {
+                return "user:" + username;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(TOO_MANY_REQUESTS_BODY.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS_BODY);
+    }
+}
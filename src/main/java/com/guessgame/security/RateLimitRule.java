@@ -0,0 +1,20 @@
+package com.guessgame.security;
+
+/**
+ * Giới hạn tần suất cho một nhóm endpoint: trung bình {@code perSecond} request mỗi giây cho mỗi khoá,
+ * cho phép dồn tối đa {@code burst} request liên tiếp.
+ *
+ * @param name                  Tên nhóm (dùng làm tiền tố khoá và tag metrics).
+ * @param emissionIntervalNanos Khoảng cách trung bình giữa hai request (nano giây).
+ * @param burstToleranceNanos   Lượng "đi trước" tối đa so với lịch đều (nano giây).
+ */
+public record RateLimitRule(String name, long emissionIntervalNanos, long burstToleranceNanos) {
+
+    public static RateLimitRule of(String name, double perSecond, int burst) {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Invalid rate limit for " + name);
+        }
+        long interval = (long) (1_000_000_000L / perSecond);
+        return new RateLimitRule(name, interval, interval * (burst - 1));
+    }
+}
@@ -0,0 +1,29 @@
+package com.guessgame.security;
+
+/**
+ * Kho lưu "thời điểm đến lý thuyết" (TAT) của thuật toán GCRA theo khoá, dùng chung cho {@link GcraRateLimiter}.
+ * <p>
+ * Mọi thay đổi đi qua {@link #compareAndSet}, nên nhiều limiter (trên cùng node hoặc trên các node khác nhau)
+ * dùng chung một kho sẽ cùng tuân theo một giới hạn. Bản cài đặt dùng chung giữa các node (ví dụ Redis với
+ * một script CAS) chỉ cần cung cấp hai thao tác này; {@link InMemoryRateLimitStore} là bản trong JVM.
+ * <p>
+ * Mỗi lần truy cập gia hạn khoá thêm {@code ttlMs} (như {@code PEXPIRE} của Redis), để khoá đang được dùng
+ * không hết hạn giữa chừng và làm mất trạng thái giới hạn.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Đọc TAT hiện tại của khoá và gia hạn khoá.
+     *
+     * @return TAT, hoặc null nếu khoá chưa có (hoặc đã hết hạn).
+     */
+    Long get(String key, long ttlMs);
+
+    /**
+     * Đặt TAT mới nếu giá trị hiện tại vẫn là {@code expected}, và gia hạn khoá.
+     *
+     * @param expected Giá trị đã đọc bằng {@link #get}; null nghĩa là chỉ đặt khi khoá chưa có.
+     * @return true nếu đã đặt, false nếu khoá đã bị thay đổi kể từ lần đọc.
+     */
+    boolean compareAndSet(String key, Long expected, long update, long ttlMs);
+}
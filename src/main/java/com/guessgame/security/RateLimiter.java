@@ -0,0 +1,18 @@
+package com.guessgame.security;
+
+/**
+ * Nơi lưu trạng thái giới hạn tần suất.
+ * <p>
+ * Với {@code rate-limit.backend=local}, {@link GcraRateLimiter} giữ trạng thái trong bộ nhớ của từng node. Khi chạy
+ * nhiều node, dùng {@code rate-limit.backend=shared} cùng một bean {@link RateLimitStore} dùng chung (ví dụ Redis)
+ * để các node cùng tuân theo một giới hạn.
+ */
+public interface RateLimiter {
+
+    /**
+     * Ghi nhận một request của khoá.
+     *
+     * @return 0 nếu request được phép, ngược lại là thời gian cần chờ (nano giây) trước khi thử lại.
+     */
+    long tryAcquire(String key, RateLimitRule rule);
+}
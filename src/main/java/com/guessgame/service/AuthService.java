@@ -0,0 +1,103 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.UserCredentialsView;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Xác thực đăng nhập bằng username/mật khẩu với đúng một lần truy vấn người dùng.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthService {
+
+    private final UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    private final GameMetrics gameMetrics;
+
+    // Hash giả có cùng độ khó bcrypt, dùng khi username không tồn tại để thời gian phản hồi không bị lộ
+    private String dummyHash;
+
+    @PostConstruct
+    public void init() {
+        dummyHash = passwordEncoder.encode("dummy-password-for-unknown-users");
+    }
+
+    /**
+     * Kết quả kiểm tra mật khẩu thành công.
+     *
+     * @param username     Username đã xác thực.
+     * @param upgradedHash Hash mới với độ khó bcrypt hiện tại, hoặc {@code null} nếu không cần băm lại.
+     */
+    public record Verified(String username, String upgradedHash) {
+    }
+
+    /**
+     * Đọc thông tin đăng nhập của người dùng. Chỉ truy vấn cơ sở dữ liệu, không chạy bcrypt, nên được gọi
+     * trên luồng request trước khi chuyển sang pool bcrypt.
+     *
+     * @param username Tên người dùng.
+     * @return Thông tin đăng nhập, hoặc rỗng nếu username không tồn tại.
+     */
+    public Optional<UserCredentialsView> findCredentials(String username) {
+        return username == null ? Optional.empty() : userRepository.findCredentialsByUsername(username);
+    }
+
+    /**
+     * Kiểm tra mật khẩu bằng bcrypt, không truy cập cơ sở dữ liệu (chạy trên pool bcrypt). Username không
+     * tồn tại vẫn được kiểm tra với một hash giả để có cùng thời gian xử lý như mật khẩu sai. Nếu mật khẩu
+     * đang lưu có độ khó bcrypt thấp hơn cấu hình, hash mới được tính luôn ở đây để {@link #completeLogin}
+     * chỉ còn phải ghi xuống cơ sở dữ liệu.
+     *
+     * @param credentials Thông tin đăng nhập đọc từ {@link #findCredentials}.
+     * @param rawPassword Mật khẩu người dùng nhập.
+     * @return Kết quả xác thực, hoặc rỗng nếu thông tin đăng nhập không hợp lệ.
+     */
+    public Optional<Verified> verify(Optional<UserCredentialsView> credentials, String rawPassword) {
+        String password = rawPassword == null ? "" : rawPassword;
+        if (credentials.isEmpty() || credentials.get().password() == null) {
+            matches(password, dummyHash);
+            return Optional.empty();
+        }
+
+        UserCredentialsView user = credentials.get();
+        if (!matches(password, user.password())) {
+            return Optional.empty();
+        }
+        String upgradedHash = passwordEncoder.upgradeEncoding(user.password()) ? passwordEncoder.encode(password) : null;
+        return Optional.of(new Verified(user.username(), upgradedHash));
+    }
+
+    /**
+     * Hoàn tất đăng nhập sau khi mật khẩu đã được kiểm tra: lưu hash mới nếu cần băm lại.
+     *
+     * @param verified Kết quả từ {@link #verify}.
+     * @return Username đã xác thực.
+     */
+    public String completeLogin(Verified verified) {
+        if (verified.upgradedHash() != null) {
+            userRepository.updatePassword(verified.username(), verified.upgradedHash());
+            userDetailsService.evict(verified.username());
+        }
+        return verified.username();
+    }
+
+    private boolean matches(String rawPassword, String encodedPassword) {
+        long start = gameMetrics.start();
+        try {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        } finally {
+            gameMetrics.recordBcryptLogin(start);
+        }
+    }
+}
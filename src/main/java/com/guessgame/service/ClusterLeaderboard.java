@@ -0,0 +1,137 @@
+package com.guessgame.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đồng bộ bảng xếp hạng giữa nhiều node chạy sau load balancer.
+ * <p>
+ * Mỗi node ghi nhận các người dùng vừa đổi điểm số trên node đó; theo chu kỳ {@code game.cluster.sync-interval-ms},
+ * chỉ top-K trong số đó được gửi qua {@link LeaderboardTransport} và gộp vào {@link LeaderboardIndex} của các node khác.
+ * Vì điểm số chỉ tăng, người dùng bị loại khỏi top-K cục bộ đã có K người dùng khác đứng trên,
+ * nên top-K toàn cục trên mọi node vẫn đúng sau khi gộp. Chi phí tỉ lệ với số thay đổi, không với kích thước bảng.
+ */
+@Slf4j
+public class ClusterLeaderboard {
+
+    private static final Comparator<LeaderboardIndex.Entry> RANKING = Comparator
+            .comparingInt(LeaderboardIndex.Entry::score).reversed()
+            .thenComparingLong(LeaderboardIndex.Entry::id);
+
+    private final LeaderboardIndex leaderboardIndex;
+
+    private final LeaderboardTransport transport;
+
+    private final String nodeId;
+
+    private final int topK;
+
+    private final long syncIntervalMs;
+
+    // Điểm số mới nhất của người dùng đổi điểm từ lần gửi trước
+    private final ConcurrentHashMap<String, LeaderboardIndex.Entry> changed = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    // Chỉ ghi trên luồng gửi
+    private long sequence;
+
+    public ClusterLeaderboard(LeaderboardIndex leaderboardIndex, LeaderboardTransport transport,
+                              String nodeId, int topK, long syncIntervalMs) {
+        this.leaderboardIndex = leaderboardIndex;
+        this.transport = transport;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.topK = topK;
+        this.syncIntervalMs = syncIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        leaderboardIndex.onChange(this::changed);
+        transport.subscribe(this::receive);
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-leaderboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Node {} đồng bộ top-{} bảng xếp hạng mỗi {} ms", nodeId, topK, syncIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        // Gửi nốt các thay đổi cuối
+        syncQuietly();
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Gửi top-K người dùng đổi điểm từ lần gửi trước.
+     *
+     * @return Số người dùng đã gửi.
+     */
+    public synchronized int sync() {
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        // Heap nhỏ nhất giữ K người dùng cao điểm nhất: O(m log K) với m thay đổi
+        PriorityQueue<LeaderboardIndex.Entry> top = new PriorityQueue<>(topK + 1, RANKING.reversed());
+        Iterator<String> usernames = changed.keySet().iterator();
+        while (usernames.hasNext()) {
+            LeaderboardIndex.Entry entry = changed.remove(usernames.next());
+            if (entry == null) {
+                continue;
+            }
+            top.offer(entry);
+            if (top.size() > topK) {
+                top.poll();
+            }
+        }
+        List<LeaderboardIndex.Entry> entries = new ArrayList<>(top);
+        entries.sort(RANKING);
+        transport.publish(new LeaderboardTransport.Delta(nodeId, ++sequence, List.copyOf(entries)));
+        return entries.size();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Không gửi được thay đổi bảng xếp hạng: {}", e.toString());
+        }
+    }
+
+    private void changed(LeaderboardIndex.Entry entry) {
+        // Listener có thể chạy sai thứ tự giữa các luồng: giữ điểm số cao nhất
+        changed.merge(entry.username(), entry, (old, latest) -> latest.score() >= old.score() ? latest : old);
+    }
+
+    private void receive(LeaderboardTransport.Delta delta) {
+        if (nodeId.equals(delta.nodeId())) {
+            return;
+        }
+        int merged = 0;
+        for (LeaderboardIndex.Entry entry : delta.entries()) {
+            if (leaderboardIndex.mergeRemote(entry)) {
+                merged++;
+            }
+        }
+        log.debug("Gộp {}/{} người dùng từ node {} (#{})", merged, delta.entries().size(), delta.nodeId(), delta.sequence());
+    }
+}
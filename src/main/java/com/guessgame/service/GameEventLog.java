@@ -0,0 +1,226 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.GuessResult;
+import com.guessgame.entity.GameEventType;
+import com.guessgame.metrics.GameMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nhật ký sự kiện trò chơi (bảng {@code game_events}), ghi bất đồng bộ.
+ * <p>
+ * Luồng xử lý request đưa sự kiện vào một hàng đợi có giới hạn ({@code game.events.queue-capacity}); khi hàng đợi
+ * đầy, luồng đó chờ đến khi có chỗ thay vì bỏ sự kiện. Một luồng nền gom tối đa {@code game.events.batch-size}
+ * sự kiện và ghi bằng một câu lệnh INSERT ... SELECT FROM unnest(...) duy nhất; lô ghi lỗi được giữ lại và thử lại
+ * sau {@code game.events.retry-delay-ms} (đếm ở {@code game.events.retries}) cho đến khi ghi được.
+ * <p>
+ * Sự kiện chỉ được ghi sau khi thay đổi tương ứng đã được commit, nên nhật ký không chứa lượt chơi bị rollback.
+ * Sự kiện chỉ bị mất khi tiến trình dừng đột ngột, hoặc còn trong hàng đợi khi hết thời gian chờ lúc dừng ứng dụng
+ * (đếm ở {@code game.events.dropped}). Xem {@link GameEventReplay} để đối chiếu hoặc dựng lại điểm số/lượt chơi
+ * từ nhật ký.
+ */
+@Slf4j
+@Component
+public class GameEventLog {
+
+    private static final String INSERT_SQL = "INSERT INTO game_events " +
+            "(type, username, guess, server_number, win, score_delta, turns_delta, created_at) " +
+            "SELECT e.type, e.username, e.guess, e.server_number, e.win, e.score_delta, e.turns_delta, " +
+            "to_timestamp(e.created_at / 1000.0) " +
+            "FROM unnest(?, ?, ?, ?, ?, ?, ?, ?) " +
+            "AS e(type, username, guess, server_number, win, score_delta, turns_delta, created_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final GameMetrics gameMetrics;
+
+    private final boolean enabled;
+
+    private final int queueCapacity;
+
+    private final int batchSize;
+
+    private final long retryDelayMs;
+
+    private BlockingQueue<Event> queue;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    public GameEventLog(JdbcTemplate jdbcTemplate, GameMetrics gameMetrics,
+                        @Value("${game.events.enabled:true}") boolean enabled,
+                        @Value("${game.events.queue-capacity:65536}") int queueCapacity,
+                        @Value("${game.events.batch-size:1000}") int batchSize,
+                        @Value("${game.events.retry-delay-ms:1000}") long retryDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gameMetrics = gameMetrics;
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    /**
+     * Nhật ký không ghi gì, dùng khi dựng bean bên ngoài Spring context (kiểm thử, benchmark).
+     */
+    public static GameEventLog disabled() {
+        return new GameEventLog(null, GameMetrics.noop(), false, 0, 0, 0);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::run, "game-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            // Cơ sở dữ liệu vẫn lỗi: dừng thử lại, các sự kiện còn lại không được ghi
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        int unwritten = queue.size();
+        if (unwritten > 0) {
+            log.error("Dừng ứng dụng khi còn {} sự kiện trò chơi chưa ghi", unwritten);
+            gameMetrics.recordGameEventsDropped(unwritten);
+        }
+    }
+
+    /**
+     * Ghi nhận một lượt đoán số đã được commit.
+     */
+    public void guess(String username, GuessResult result) {
+        if (enabled) {
+            append(new Event(GameEventType.GUESS, username, result.number(), result.serverNumber(), result.win(),
+                    result.win() ? GameService.POINTS_PER_WIN : 0, -1, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Ghi nhận các lượt đoán số của một lần đoán nhiều lượt đã được commit.
+     */
+    public void guesses(String username, List<GuessResult> results) {
+        for (GuessResult result : results) {
+            guess(username, result);
+        }
+    }
+
+    /**
+     * Ghi nhận việc cộng lượt chơi đã được commit.
+     */
+    public void turnsCredited(String username, int turns) {
+        if (enabled) {
+            append(new Event(GameEventType.TURNS_CREDITED, username, null, null, null, 0, turns,
+                    System.currentTimeMillis()));
+        }
+    }
+
+    private void append(Event event) {
+        try {
+            queue.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Bị ngắt khi chờ ghi sự kiện {} của {}", event.type(), event.username());
+            gameMetrics.recordGameEventsDropped(1);
+        }
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    Event first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                // Giữ nguyên lô và thử lại: lô chưa được commit nên không bị ghi trùng
+                log.error("Không ghi được {} sự kiện trò chơi, thử lại sau {} ms", batch.size(), retryDelayMs, e);
+                gameMetrics.recordGameEventsRetried();
+                try {
+                    Thread.sleep(retryDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            log.error("Dừng ghi khi còn {} sự kiện trò chơi trong lô chưa ghi", batch.size());
+            gameMetrics.recordGameEventsDropped(batch.size());
+        }
+    }
+
+    private void write(List<Event> batch) {
+        long start = gameMetrics.start();
+        int size = batch.size();
+        String[] types = new String[size];
+        String[] usernames = new String[size];
+        Integer[] guesses = new Integer[size];
+        Integer[] serverNumbers = new Integer[size];
+        Boolean[] wins = new Boolean[size];
+        Integer[] scoreDeltas = new Integer[size];
+        Integer[] turnsDeltas = new Integer[size];
+        Long[] createdAt = new Long[size];
+        for (int i = 0; i < size; i++) {
+            Event event = batch.get(i);
+            types[i] = event.type().name();
+            usernames[i] = event.username();
+            guesses[i] = event.guess();
+            serverNumbers[i] = event.serverNumber();
+            wins[i] = event.win();
+            scoreDeltas[i] = event.scoreDelta();
+            turnsDeltas[i] = event.turnsDelta();
+            createdAt[i] = event.createdAt();
+        }
+        jdbcTemplate.update(INSERT_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("text", types));
+            ps.setArray(2, connection.createArrayOf("text", usernames));
+            ps.setArray(3, connection.createArrayOf("integer", guesses));
+            ps.setArray(4, connection.createArrayOf("integer", serverNumbers));
+            ps.setArray(5, connection.createArrayOf("boolean", wins));
+            ps.setArray(6, connection.createArrayOf("integer", scoreDeltas));
+            ps.setArray(7, connection.createArrayOf("integer", turnsDeltas));
+            ps.setArray(8, connection.createArrayOf("bigint", createdAt));
+        });
+        gameMetrics.recordGameEventsWritten(start, size);
+    }
+
+    private record Event(GameEventType type, String username, Integer guess, Integer serverNumber, Boolean win,
+                         int scoreDelta, int turnsDelta, long createdAt) {
+    }
+}
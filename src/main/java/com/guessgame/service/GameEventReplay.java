@@ -0,0 +1,107 @@
+package com.guessgame.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Đối chiếu hoặc dựng lại {@code users.score}/{@code users.turns} từ tổng của nhật ký {@code game_events}.
+ * <p>
+ * Chạy một lần với profile {@code verify-events} (không mở cổng HTTP, không chạy các tác vụ nền), rồi
+ * {@link com.guessgame.GuessNumberApplication} đóng ứng dụng. Chế độ chọn bằng {@code game.events.replay.mode}:
+ * <ul>
+ *     <li>{@code verify} (mặc định): liệt kê người dùng bị lệch và trả mã thoát 1 nếu có.</li>
+ *     <li>{@code rebuild}: ghi tổng từ nhật ký vào {@code users} cho người dùng bị lệch. Chỉ chạy khi không có
+ *     node nào khác đang phục vụ, và sau khi các node đã dừng bình thường (sự kiện còn trong hàng đợi của
+ *     {@link GameEventLog} sẽ mất nếu tiến trình dừng đột ngột).</li>
+ * </ul>
+ * Người dùng không có sự kiện nào được so với 0 điểm, 0 lượt (số dư có sẵn trước khi ghi nhật ký nằm trong
+ * sự kiện {@code OPENING_BALANCE}).
+ */
+@Slf4j
+@Component
+@Profile(GameEventReplay.PROFILE)
+public class GameEventReplay implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String PROFILE = "verify-events";
+
+    private static final String TOTALS = "SELECT username, sum(score_delta) AS score, sum(turns_delta) AS turns " +
+            "FROM game_events GROUP BY username";
+
+    private static final String DIFF_SQL = "SELECT u.username, u.score, u.turns, " +
+            "coalesce(e.score, 0) AS event_score, coalesce(e.turns, 0) AS event_turns " +
+            "FROM users u LEFT JOIN (" + TOTALS + ") e ON e.username = u.username " +
+            "WHERE u.score <> coalesce(e.score, 0) OR u.turns <> coalesce(e.turns, 0) ORDER BY u.username";
+
+    private static final String REBUILD_SQL = "UPDATE users u SET score = coalesce(e.score, 0), turns = coalesce(e.turns, 0) " +
+            "FROM users x LEFT JOIN (" + TOTALS + ") e ON e.username = x.username " +
+            "WHERE x.id = u.id AND (u.score <> coalesce(e.score, 0) OR u.turns <> coalesce(e.turns, 0))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String mode;
+
+    private int exitCode;
+
+    public GameEventReplay(JdbcTemplate jdbcTemplate, @Value("${game.events.replay.mode:verify}") String mode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        exitCode = switch (mode.trim()) {
+            case "verify" -> verify();
+            case "rebuild" -> rebuild();
+            default -> throw new IllegalStateException("Không hỗ trợ game.events.replay.mode=" + mode
+                    + ", giá trị hợp lệ: verify, rebuild");
+        };
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * @return 0 nếu không có người dùng nào lệch so với nhật ký, 1 nếu có.
+     */
+    public int verify() {
+        List<Mismatch> mismatches = mismatches();
+        log.info("Có {} người dùng lệch so với nhật ký sự kiện", mismatches.size());
+        return mismatches.isEmpty() ? 0 : 1;
+    }
+
+    /**
+     * Ghi điểm số/lượt chơi tính từ nhật ký vào các người dùng bị lệch.
+     *
+     * @return 0 sau khi đã ghi.
+     */
+    public int rebuild() {
+        mismatches();
+        int updated = jdbcTemplate.update(REBUILD_SQL);
+        log.info("Đã dựng lại điểm số/lượt chơi của {} người dùng từ nhật ký sự kiện", updated);
+        return 0;
+    }
+
+    List<Mismatch> mismatches() {
+        List<Mismatch> mismatches = jdbcTemplate.query(DIFF_SQL, (rs, rowNum) -> new Mismatch(
+                rs.getString("username"), rs.getInt("score"), rs.getInt("turns"),
+                rs.getInt("event_score"), rs.getInt("event_turns")));
+        for (Mismatch mismatch : mismatches) {
+            log.info("{}: điểm {} (nhật ký {}), lượt {} (nhật ký {})", mismatch.username(), mismatch.score(),
+                    mismatch.eventScore(), mismatch.turns(), mismatch.eventTurns());
+        }
+        return mismatches;
+    }
+
+    record Mismatch(String username, int score, int turns, int eventScore, int eventTurns) {
+    }
+}
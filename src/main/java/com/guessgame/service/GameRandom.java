@@ -0,0 +1,36 @@
+package com.guessgame.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Nguồn số ngẫu nhiên của trò chơi.
+ */
+@FunctionalInterface
+public interface GameRandom {
+
+    /**
+     * @return Số nguyên ngẫu nhiên trong khoảng [0, bound).
+     */
+    int nextInt(int bound);
+
+    /**
+     * Mỗi luồng dùng bộ sinh riêng, không tranh chấp seed chung như {@link java.util.Random}.
+     */
+    static GameRandom threadLocal() {
+        return bound -> ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    /**
+     * Chuỗi kết quả lặp lại được với cùng seed, dùng khi kiểm thử.
+     * Các luồng dùng chung một bộ sinh nên không dùng cho môi trường có tải cao.
+     */
+    static GameRandom seeded(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return bound -> {
+            synchronized (random) {
+                return random.nextInt(bound);
+            }
+        };
+    }
+}
@@ -0,0 +1,245 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.GuessBatchResult;
+import com.guessgame.dto.GuessResult;
+import com.guessgame.entity.User;
+import com.guessgame.exception.GuessNumberException;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Xử lý nghiệp vụ trò chơi: đoán số và cộng lượt chơi.
+ * <p>
+ * Mặc định mỗi lượt đoán khoá bản ghi người dùng trong cơ sở dữ liệu. Khi bật {@link TurnLedger},
+ * lượt chơi và điểm số được cập nhật trong bộ nhớ và ghi xuống cơ sở dữ liệu theo lô.
+ */
+@Service
+@RequiredArgsConstructor
+public class GameService {
+    private final UserRepository userRepository;
+
+    private final TurnLedger turnLedger;
+
+    private final LeaderboardIndex leaderboardIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GameRandom gameRandom;
+
+    private final GameMetrics gameMetrics;
+
+    private final GameEventLog gameEventLog;
+
+    @Value("${game.guess.max-batch-size:100}")
+    private int maxBatchSize;
+
+    public static final int TURNS_TO_BUY = 5; // Số lượt mua
+
+    public static final int POINTS_PER_WIN = 1; // Số điểm cộng cho mỗi lượt chơi
+
+    private static final int MAX_SERVER_NUMBER = 5; // Số lớn nhất mà máy chủ có thể chọn
+
+    private static final int BONUS_WIN_ODDS = 20; // Xác suất thắng thêm của người chơi: 1/20 = 5%
+
+    // Mỗi lượt chỉ rút một số: phần dư chọn số máy chủ, phần thương quyết định thắng thêm
+    private static final int DRAW_BOUND = MAX_SERVER_NUMBER * BONUS_WIN_ODDS;
+
+    /**
+     * Thực hiện một lượt đoán số cho người dùng.
+     *
+     * @param username Tên người dùng.
+     * @param number   Số dự đoán (từ 1 đến 5).
+     * @return GuessResult kết quả lượt chơi.
+     * @throws GuessNumberException nếu số dự đoán không hợp lệ hoặc người dùng không còn lượt chơi.
+     */
+    public GuessResult guess(String username, int number) {
+        GuessResult result;
+        if (turnLedger.isEnabled()) {
+            result = guessInMemory(username, number);
+        } else {
+            // Khoá bản ghi người dùng trong transaction để đảm bảo tính nhất quán của lượt chơi và điểm số
+            result = transactionTemplate.execute(status -> guessWithLock(username, number));
+        }
+        gameEventLog.guess(username, result);
+        return result;
+    }
+
+    /**
+     * Thực hiện nhiều lượt đoán số trong một lần gọi: khoá bản ghi người dùng một lần và ghi một lần.
+     * Các lượt đoán được xử lý theo thứ tự cho đến khi hết danh sách hoặc hết lượt chơi.
+     *
+     * @param username Tên người dùng.
+     * @param numbers  Danh sách số dự đoán (mỗi số từ 1 đến 5).
+     * @return GuessBatchResult kết quả từng lượt và điểm số/lượt chơi cuối cùng.
+     * @throws GuessNumberException nếu danh sách không hợp lệ hoặc người dùng không còn lượt chơi.
+     */
+    public GuessBatchResult guessBatch(String username, List<Integer> numbers) {
+        if (numbers == null || numbers.isEmpty()) {
+            throw new GuessNumberException("Danh sách số dự đoán không được để trống!");
+        }
+        if (numbers.size() > maxBatchSize) {
+            throw new GuessNumberException("Chỉ được đoán tối đa " + maxBatchSize + " lượt trong một lần!");
+        }
+        for (Integer number : numbers) {
+            validateNumber(number == null ? 0 : number);
+        }
+
+        GuessBatchResult result = turnLedger.isEnabled()
+                ? guessBatchInMemory(username, numbers)
+                : transactionTemplate.execute(status -> guessBatchWithLock(username, numbers));
+        gameEventLog.guesses(username, result.results());
+        return result;
+    }
+
+    /**
+     * Cộng thêm lượt chơi cho người dùng.
+     *
+     * @param username Tên người dùng.
+     * @param turns    Số lượt chơi cần cộng.
+     * @return Số lượt chơi sau khi cộng.
+     */
+    public int creditTurns(String username, int turns) {
+        int turnsLeft;
+        if (turnLedger.isEnabled()) {
+            turnsLeft = turnLedger.addTurns(username, turns);
+        } else {
+            // Một câu lệnh UPDATE ... RETURNING: không mất cập nhật khi nhiều request cộng lượt cùng lúc
+            turnsLeft = userRepository.incrementTurns(username, turns)
+                    .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy"));
+        }
+        gameEventLog.turnsCredited(username, turns);
+        return turnsLeft;
+    }
+
+    private GuessResult guessWithLock(String username, int number) {
+        User currentUser = lockUser(username);
+        if (currentUser.getTurns() <= 0) {
+            throw new GuessNumberException("Bạn không còn lượt chơi nào! Vui lòng mua thêm lượt chơi.");
+        }
+        validateNumber(number);
+
+        currentUser.setTurns(currentUser.getTurns() - 1);
+        int draw = gameRandom.nextInt(DRAW_BOUND);
+        int serverNumber = serverNumber(draw);
+        boolean isUserWin = isUserWin(number, draw);
+        gameMetrics.recordGuessResult(isUserWin);
+        if (isUserWin) {
+            currentUser.setScore(currentUser.getScore() + POINTS_PER_WIN);
+        }
+
+        userRepository.save(currentUser);
+        if (isUserWin) {
+            leaderboardIndex.update(currentUser.getId(), username, currentUser.getScore());
+        }
+        return new GuessResult(number, serverNumber, isUserWin, currentUser.getScore(), currentUser.getTurns());
+    }
+
+    private GuessBatchResult guessBatchWithLock(String username, List<Integer> numbers) {
+        User currentUser = lockUser(username);
+        if (currentUser.getTurns() <= 0) {
+            throw new GuessNumberException("Bạn không còn lượt chơi nào! Vui lòng mua thêm lượt chơi.");
+        }
+
+        int turns = currentUser.getTurns();
+        int score = currentUser.getScore();
+        List<GuessResult> results = new ArrayList<>(Math.min(turns, numbers.size()));
+        for (int i = 0; i < numbers.size() && turns > 0; i++) {
+            int number = numbers.get(i);
+            turns--;
+            int draw = gameRandom.nextInt(DRAW_BOUND);
+            int serverNumber = serverNumber(draw);
+            boolean isUserWin = isUserWin(number, draw);
+            gameMetrics.recordGuessResult(isUserWin);
+            if (isUserWin) {
+                score += POINTS_PER_WIN;
+            }
+            results.add(new GuessResult(number, serverNumber, isUserWin, score, turns));
+        }
+
+        boolean scoreChanged = score != currentUser.getScore();
+        currentUser.setTurns(turns);
+        currentUser.setScore(score);
+        userRepository.save(currentUser);
+        if (scoreChanged) {
+            leaderboardIndex.update(currentUser.getId(), username, score);
+        }
+        return new GuessBatchResult(results, score, turns);
+    }
+
+    private GuessBatchResult guessBatchInMemory(String username, List<Integer> numbers) {
+        List<GuessResult> results = new ArrayList<>(numbers.size());
+        for (Integer number : numbers) {
+            if (!turnLedger.tryConsumeTurn(username)) {
+                break;
+            }
+            int draw = gameRandom.nextInt(DRAW_BOUND);
+            int serverNumber = serverNumber(draw);
+            boolean isUserWin = isUserWin(number, draw);
+            gameMetrics.recordGuessResult(isUserWin);
+            int score = isUserWin
+                    ? turnLedger.addScore(username, POINTS_PER_WIN)
+                    : turnLedger.getScore(username);
+            results.add(new GuessResult(number, serverNumber, isUserWin, score, turnLedger.getTurns(username)));
+        }
+        if (results.isEmpty()) {
+            throw new GuessNumberException("Bạn không còn lượt chơi nào! Vui lòng mua thêm lượt chơi.");
+        }
+        leaderboardIndex.update(turnLedger.getUserId(username), username, () -> turnLedger.getScore(username));
+        return new GuessBatchResult(results, turnLedger.getScore(username), turnLedger.getTurns(username));
+    }
+
+    private GuessResult guessInMemory(String username, int number) {
+        validateNumber(number);
+        if (!turnLedger.tryConsumeTurn(username)) {
+            throw new GuessNumberException("Bạn không còn lượt chơi nào! Vui lòng mua thêm lượt chơi.");
+        }
+
+        int draw = gameRandom.nextInt(DRAW_BOUND);
+        int serverNumber = serverNumber(draw);
+        boolean isUserWin = isUserWin(number, draw);
+        gameMetrics.recordGuessResult(isUserWin);
+        int score;
+        if (isUserWin) {
+            score = turnLedger.addScore(username, POINTS_PER_WIN);
+            leaderboardIndex.update(turnLedger.getUserId(username), username, () -> turnLedger.getScore(username));
+        } else {
+            score = turnLedger.getScore(username);
+        }
+        return new GuessResult(number, serverNumber, isUserWin, score, turnLedger.getTurns(username));
+    }
+
+    // Khoá bản ghi người dùng, đo thời gian chờ khoá khi nhiều request cùng chơi trên một tài khoản
+    private User lockUser(String username) {
+        long start = gameMetrics.start();
+        try {
+            return userRepository.findByUsernameForUpdate(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy"));
+        } finally {
+            gameMetrics.recordLockWait(start);
+        }
+    }
+
+    private static void validateNumber(int number) {
+        if (number < 1 || number > MAX_SERVER_NUMBER) {
+            throw new GuessNumberException("Số dự đoán phải nằm trong khoảng từ 1 đến 5!");
+        }
+    }
+
+    // Máy chủ chọn một số từ 1 đến MAX_SERVER_NUMBER, phân bố đều
+    private static int serverNumber(int draw) {
+        return draw % MAX_SERVER_NUMBER + 1;
+    }
+
+    // Người chơi thắng nếu số dự đoán trùng với số máy chủ hoặc theo xác suất thắng thêm (độc lập với số máy chủ)
+    private static boolean isUserWin(int number, int draw) {
+        return draw / MAX_SERVER_NUMBER == 0 || number == serverNumber(draw);
+    }
+}
@@ -0,0 +1,348 @@
+package com.guessgame.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Bảng xếp hạng trong bộ nhớ, sắp xếp theo (điểm số giảm dần, id tăng dần).
+ * <p>
+ * Được nạp một lần từ bảng {@code users} khi khởi động và cập nhật mỗi khi điểm số thay đổi,
+ * nên việc đọc top-K không cần truy vấn cơ sở dữ liệu.
+ * <p>
+ * Dữ liệu được lưu trong một cây thống kê thứ tự (treap có lưu kích thước cây con), nên cập nhật điểm số,
+ * tra cứu thứ hạng của một người dùng và lấy phần tử ở vị trí bất kỳ đều mất O(log n); đọc một trang K
+ * phần tử mất O(log n + K). Đọc dùng khoá đọc dùng chung, cập nhật dùng khoá ghi.
+ * <p>
+ * Khi chạy nhiều node, thay đổi điểm số của node khác được gộp vào qua {@link #mergeRemote(Entry)}
+ * (xem {@link ClusterLeaderboard}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaderboardIndex {
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::score).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private Node root;
+
+    // Tăng mỗi khi bảng xếp hạng thay đổi (chỉ ghi khi giữ khoá ghi)
+    private volatile long version;
+
+    private volatile long lastModified = System.currentTimeMillis();
+
+    private final List<Consumer<Entry>> listeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void load() {
+        jdbcTemplate.query("SELECT id, username, score FROM users",
+                (RowCallbackHandler) rs -> update(rs.getLong("id"), rs.getString("username"), rs.getInt("score")));
+        log.info("Đã nạp {} người dùng vào bảng xếp hạng", size());
+    }
+
+    /**
+     * Cập nhật điểm số của người dùng trong bảng xếp hạng (thêm mới nếu chưa có).
+     */
+    public void update(long id, String username, int score) {
+        update(id, username, () -> score);
+    }
+
+    /**
+     * Cập nhật điểm số của người dùng, đọc điểm số mới nhất trong lúc giữ khoá ghi.
+     * Dùng khi điểm số có thể bị thay đổi đồng thời bởi nhiều luồng (ví dụ: sổ cái trong bộ nhớ),
+     * để lần cập nhật cuối cùng luôn mang giá trị mới nhất.
+     */
+    public void update(long id, String username, IntSupplier latestScore) {
+        Entry entry;
+        lock.writeLock().lock();
+        try {
+            int score = latestScore.getAsInt();
+            Entry old = entries.get(username);
+            if (old != null && old.score() == score && old.id() == id) {
+                return;
+            }
+            entry = put(old, new Entry(id, username, score));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Gọi ngoài khoá ghi để không kéo dài thời gian giữ khoá
+        for (Consumer<Entry> listener : listeners) {
+            listener.accept(entry);
+        }
+    }
+
+    /**
+     * Gộp điểm số nhận từ node khác: chỉ áp dụng khi cao hơn điểm số đang có, vì điểm số chỉ tăng.
+     * Nhờ vậy thứ tự và số lần nhận không ảnh hưởng kết quả. Không thông báo cho {@link #onChange(Consumer)}.
+     *
+     * @return true nếu bảng xếp hạng thay đổi.
+     */
+    public boolean mergeRemote(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            Entry old = entries.get(entry.username());
+            if (old != null && old.score() >= entry.score()) {
+                return false;
+            }
+            put(old, entry);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Đăng ký nhận mọi thay đổi điểm số cục bộ (qua {@link #update}); listener chạy trên luồng cập nhật nên phải nhanh.
+     */
+    public void onChange(Consumer<Entry> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Lấy một trang của bảng xếp hạng.
+     *
+     * @param offset Vị trí bắt đầu (tính từ 0).
+     * @param limit  Số người dùng tối đa trả về.
+     * @return Danh sách người dùng theo thứ tự xếp hạng.
+     */
+    public List<Entry> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (offset < 0 || offset >= size(root) || limit <= 0) {
+                return Collections.emptyList();
+            }
+            List<Entry> result = new ArrayList<>(Math.min(limit, size(root) - offset));
+            collect(root, offset, limit, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> top(int k) {
+        return page(0, k);
+    }
+
+    /**
+     * Tra cứu thứ hạng của người dùng cùng các người dùng xếp ngay trên và ngay dưới.
+     *
+     * @param username   Tên người dùng.
+     * @param neighbours Số người dùng lân cận lấy thêm ở mỗi phía.
+     * @return Thứ hạng (tính từ 1) và danh sách lân cận, hoặc null nếu người dùng không có trong bảng xếp hạng.
+     */
+    public Rank rank(String username, int neighbours) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(username);
+            if (entry == null) {
+                return null;
+            }
+            int position = countBefore(root, entry);
+            int from = Math.max(0, position - neighbours);
+            List<Entry> around = new ArrayList<>(2 * neighbours + 1);
+            collect(root, from, position - from + neighbours + 1, around);
+            return new Rank(entry, position + 1, from + 1, around, size(root));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Phiên bản hiện tại của bảng xếp hạng; không đổi nghĩa là dữ liệu không đổi.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Thời điểm bảng xếp hạng thay đổi lần cuối (epoch millis).
+     */
+    public long lastModified() {
+        return lastModified;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Một dòng trong bảng xếp hạng.
+     */
+    public record Entry(long id, String username, int score) {
+    }
+
+    /**
+     * Thứ hạng của một người dùng.
+     *
+     * @param entry      Dòng của người dùng trong bảng xếp hạng.
+     * @param rank       Thứ hạng (tính từ 1).
+     * @param firstRank  Thứ hạng của phần tử đầu tiên trong {@code neighbours}.
+     * @param neighbours Các người dùng xung quanh (bao gồm cả người dùng này), theo thứ tự xếp hạng.
+     * @param total      Tổng số người dùng trong bảng xếp hạng.
+     */
+    public record Rank(Entry entry, int rank, int firstRank, List<Entry> neighbours, int total) {
+    }
+
+    // Chỉ gọi khi giữ khoá ghi
+    private Entry put(Entry old, Entry entry) {
+        if (old != null) {
+            root = delete(root, old);
+        }
+        entries.put(entry.username(), entry);
+        root = insert(root, new Node(entry, ThreadLocalRandom.current().nextInt()));
+        version++;
+        lastModified = System.currentTimeMillis();
+        return entry;
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node resize(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (inserted.priority > node.priority) {
+            Node[] parts = split(node, inserted.entry);
+            inserted.left = parts[0];
+            inserted.right = parts[1];
+            return resize(inserted);
+        }
+        if (RANKING.compare(inserted.entry, node.entry) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return resize(node);
+    }
+
+    // Tách cây thành hai phần: nhỏ hơn key và lớn hơn key (key không có trong cây)
+    private static Node[] split(Node node, Entry key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (RANKING.compare(node.entry, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = resize(node);
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        parts[1] = resize(node);
+        return parts;
+    }
+
+    private static Node delete(Node node, Entry key) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = RANKING.compare(key, node.entry);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else {
+            node.right = delete(node.right, key);
+        }
+        return resize(node);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return resize(left);
+        }
+        right.left = merge(left, right.left);
+        return resize(right);
+    }
+
+    // Số phần tử đứng trước key trong thứ tự xếp hạng
+    private static int countBefore(Node node, Entry key) {
+        int count = 0;
+        while (node != null) {
+            int cmp = RANKING.compare(key, node.entry);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return count + size(node.left);
+            }
+        }
+        return count;
+    }
+
+    // Thu thập tối đa limit phần tử bắt đầu từ vị trí offset trong cây con
+    private static void collect(Node node, int offset, int limit, List<Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (out.size() < limit && offset <= leftSize) {
+            out.add(node.entry);
+        }
+        if (out.size() < limit) {
+            collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.guessgame.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guessgame.dto.UserLeaderboardDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Đẩy top-K của bảng xếp hạng tới các client đăng ký qua Server-Sent Events.
+ * <p>
+ * Một luồng nền kiểm tra {@link LeaderboardIndex#version()} theo chu kỳ {@code game.leaderboard.stream.interval-ms}:
+ * chỉ khi top-K thực sự thay đổi, danh sách mới được tính và serialize một lần rồi gửi cho mọi client.
+ * Nhiều thay đổi điểm số trong cùng một chu kỳ được gộp thành một sự kiện.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaderboardStream {
+
+    private static final String EVENT_NAME = "leaderboard";
+
+    private final LeaderboardIndex leaderboardIndex;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${game.leaderboard.stream.top-k:10}")
+    private int topK;
+
+    @Value("${game.leaderboard.stream.interval-ms:1000}")
+    private long intervalMs;
+
+    @Value("${game.leaderboard.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${game.leaderboard.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${game.leaderboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+
+    // Chỉ được đọc/ghi trên luồng nền, trừ snapshot được publish cho client mới
+    private long lastVersion = -1;
+
+    private List<LeaderboardIndex.Entry> lastTop = List.of();
+
+    private long lastSentAt;
+
+    private volatile String snapshot;
+
+    @PostConstruct
+    public void start() {
+        snapshot = serialize(toDto(leaderboardIndex.top(topK)));
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::publish, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * Đăng ký nhận cập nhật; client nhận ngay top-K hiện tại.
+     *
+     * @throws RejectedExecutionException nếu số client đã đạt {@code game.leaderboard.stream.max-subscribers}.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Quá nhiều kết nối bảng xếp hạng");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        try {
+            String sent = snapshot;
+            emitter.send(event(sent));
+            subscribers.add(emitter);
+            // Top-K vừa đổi giữa lúc gửi snapshot và lúc đăng ký: gửi bản mới nhất để không bỏ lỡ
+            String latest = snapshot;
+            if (!latest.equals(sent)) {
+                emitter.send(event(latest));
+            }
+        } catch (IOException e) {
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publish() {
+        try {
+            long now = System.currentTimeMillis();
+            long version = leaderboardIndex.version();
+            if (version != lastVersion) {
+                lastVersion = version;
+                List<LeaderboardIndex.Entry> top = leaderboardIndex.top(topK);
+                if (!top.equals(lastTop)) {
+                    lastTop = top;
+                    // Serialize một lần cho mọi client
+                    snapshot = serialize(toDto(top));
+                    broadcast(event(snapshot));
+                    lastSentAt = now;
+                    return;
+                }
+            }
+            if (now - lastSentAt >= heartbeatMs) {
+                // Comment SSE giữ kết nối qua proxy và phát hiện client đã ngắt
+                broadcast(SseEmitter.event().comment("heartbeat"));
+                lastSentAt = now;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Không đẩy được bảng xếp hạng: {}", e.toString());
+        }
+    }
+
+    private void broadcast(SseEmitter.SseEventBuilder event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // build() chỉ được gọi một lần cho mỗi sự kiện; phần dữ liệu đã serialize được dùng chung
+        Set<ResponseBodyEmitter.DataWithMediaType> data = event.build();
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(data);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder event(String json) {
+        return SseEmitter.event().name(EVENT_NAME).data(json, MediaType.APPLICATION_JSON);
+    }
+
+    private static List<UserLeaderboardDTO> toDto(List<LeaderboardIndex.Entry> entries) {
+        return entries.stream()
+                .map(entry -> new UserLeaderboardDTO(entry.username(), entry.score()))
+                .toList();
+    }
+
+    private String serialize(List<UserLeaderboardDTO> top) {
+        try {
+            return objectMapper.writeValueAsString(top);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.guessgame.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Kênh trao đổi thay đổi bảng xếp hạng giữa các node.
+ * <p>
+ * Không cần đảm bảo thứ tự hay gửi đúng một lần: {@link LeaderboardIndex#mergeRemote} chỉ giữ điểm số cao nhất,
+ * nên nhận lặp lại hoặc sai thứ tự vẫn cho cùng kết quả.
+ */
+public interface LeaderboardTransport {
+
+    /**
+     * Gửi thay đổi tới mọi node (có thể bao gồm cả node gửi).
+     */
+    void publish(Delta delta);
+
+    /**
+     * Đăng ký nhận thay đổi từ các node.
+     */
+    void subscribe(Consumer<Delta> listener);
+
+    /**
+     * Top-K người dùng vừa thay đổi điểm số trên một node.
+     *
+     * @param nodeId   Node gửi.
+     * @param sequence Số thứ tự tăng dần trên node gửi.
+     * @param entries  Các người dùng thay đổi, theo thứ tự xếp hạng.
+     */
+    record Delta(String nodeId, long sequence, List<LeaderboardIndex.Entry> entries) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.guessgame.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport trong cùng JVM: gửi đồng bộ tới mọi listener đã đăng ký.
+ * Dùng khi chạy một node, hoặc khi kiểm thử nhiều node trong cùng một tiến trình bằng một instance dùng chung.
+ */
+@Slf4j
+public class LoopbackLeaderboardTransport implements LeaderboardTransport {
+
+    private final List<Consumer<Delta>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Delta delta) {
+        for (Consumer<Delta> listener : listeners) {
+            try {
+                listener.accept(delta);
+            } catch (RuntimeException e) {
+                log.warn("Node không nhận được thay đổi bảng xếp hạng từ {}: {}", delta.nodeId(), e.toString());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Delta> listener) {
+        listeners.add(listener);
+    }
+}
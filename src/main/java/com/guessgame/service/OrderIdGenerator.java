@@ -0,0 +1,53 @@
+package com.guessgame.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sinh id đơn hàng duy nhất không cần sequence của cơ sở dữ liệu (kiểu Snowflake).
+ * <p>
+ * Id 63 bit gồm: 41 bit thời gian (mili giây kể từ {@link #EPOCH}), 10 bit mã node
+ * ({@code payment.order-id.node-id}) và 12 bit số thứ tự trong cùng mili giây.
+ * Việc sinh id không dùng khoá: trạng thái (thời gian, số thứ tự) được cập nhật bằng CAS trên một {@link AtomicLong}.
+ * Khi dùng hết số thứ tự trong một mili giây, id tiếp theo mượn mili giây kế tiếp nên id luôn tăng dần.
+ */
+@Component
+public class OrderIdGenerator {
+
+    private static final long EPOCH = 1735689600000L; // 2025-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeId;
+
+    // (thời gian << SEQUENCE_BITS) | số thứ tự của id được sinh gần nhất
+    private final AtomicLong state = new AtomicLong();
+
+    public OrderIdGenerator(@Value("${payment.order-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("payment.order-id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long candidate = now << SEQUENCE_BITS;
+            next = candidate > current ? candidate : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+}
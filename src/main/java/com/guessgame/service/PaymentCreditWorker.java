@@ -0,0 +1,221 @@
+package com.guessgame.service;
+
+import com.guessgame.entity.PaymentOrder;
+import com.guessgame.entity.PaymentStatus;
+import com.guessgame.repository.PaymentOrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cộng lượt chơi cho các đơn hàng đã thanh toán theo lô, trên một luồng nền riêng.
+ * <p>
+ * Mỗi lô gồm hai câu lệnh trong cùng một transaction: chuyển các đơn hàng PAID sang CREDITED
+ * (chỉ những đơn hàng còn ở trạng thái PAID mới được trả về, nên mỗi đơn hàng chỉ được cộng một lần),
+ * sau đó cộng lượt chơi đã gộp theo từng người dùng bằng một câu lệnh UPDATE duy nhất. Khi bật sổ cái trong bộ nhớ,
+ * lượt chơi vẫn được cộng vào cơ sở dữ liệu trong transaction này rồi mới cộng vào sổ cái, nên không bị mất
+ * nếu tiến trình dừng trước lần ghi định kỳ của sổ cái.
+ * Đơn hàng không vào được hàng đợi (đầy) hoặc lô bị lỗi vẫn ở trạng thái PAID và sẽ được
+ * quét lại định kỳ.
+ * <p>
+ * Tắt bằng {@code payment.credit.enabled=false} (profile {@code verify-events}): không chạy luồng nền, không quét,
+ * và mọi đơn hàng đưa vào đều bị từ chối.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentCreditWorker {
+
+    private static final String MARK_CREDITED_SQL = "UPDATE payment_orders SET status = 'CREDITED', credited_at = now() " +
+            "WHERE id = ANY (?) AND status = 'PAID' RETURNING id, username, turns";
+
+    private static final String CREDIT_TURNS_SQL = "UPDATE users u SET turns = u.turns + c.turns " +
+            "FROM unnest(?, ?) AS c(username, turns) WHERE u.username = c.username RETURNING u.username, u.turns";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final PaymentOrderRepository paymentOrderRepository;
+
+    private final TurnLedger turnLedger;
+
+    private final GameEventLog gameEventLog;
+
+    @Value("${payment.credit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${payment.credit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${payment.credit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${payment.credit.sweep-age-ms:30000}")
+    private long sweepAgeMs;
+
+    private BlockingQueue<CreditTask> queue;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::run, "payment-credit-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Đưa đơn hàng đã thanh toán vào hàng đợi cộng lượt chơi.
+     *
+     * @param orderId  Id đơn hàng ở trạng thái PAID.
+     * @param username Người dùng sở hữu đơn hàng.
+     * @return Future hoàn thành với số lượt chơi của người dùng sau khi cộng.
+     */
+    public CompletableFuture<Integer> submit(long orderId, String username) {
+        CreditTask task = new CreditTask(orderId, username, new CompletableFuture<>());
+        if (!enabled || !queue.offer(task)) {
+            task.result.completeExceptionally(new RejectedExecutionException("Hàng đợi cộng lượt chơi đã đầy"));
+        }
+        return task.result;
+    }
+
+    /**
+     * Quét lại các đơn hàng đã thanh toán nhưng chưa được cộng lượt chơi (khởi động lại, hàng đợi đầy, lô bị lỗi).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${payment.credit.sweep-interval-ms:60000}", initialDelayString = "${payment.credit.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        List<PaymentOrder> stuck = paymentOrderRepository.findByStatusAndConfirmedAtBefore(
+                PaymentStatus.PAID, Instant.now().minusMillis(sweepAgeMs));
+        for (PaymentOrder order : stuck) {
+            submit(order.getId(), order.getUsername());
+        }
+        if (!stuck.isEmpty()) {
+            log.info("Đã đưa lại {} đơn hàng chưa được cộng lượt chơi vào hàng đợi", stuck.size());
+        }
+    }
+
+    private void run() {
+        List<CreditTask> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CreditTask first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Không thể cộng lượt chơi cho {} đơn hàng, sẽ thử lại khi quét", batch.size(), e);
+                batch.forEach(task -> task.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<CreditTask> batch) {
+        Long[] orderIds = batch.stream().map(CreditTask::orderId).toArray(Long[]::new);
+
+        // Gộp số lượt chơi theo người dùng; TreeMap giữ thứ tự ổn định khi khoá các bản ghi users
+        Map<String, Integer> credits = new TreeMap<>();
+        // Các đơn hàng thực sự được chuyển sang CREDITED trong lô này
+        Set<Long> creditedOrders = new HashSet<>();
+        Map<String, Integer> turnsLeft;
+        if (turnLedger.isEnabled()) {
+            // Lượt chơi đã thanh toán không đi qua phần ghi trễ của sổ cái: được cộng vào users trong cùng
+            // transaction với CREDITED, sau đó mới cộng vào tài khoản trong bộ nhớ
+            Set<String> usernames = batch.stream().map(CreditTask::username).collect(Collectors.toSet());
+            turnsLeft = turnLedger.addCommittedTurns(usernames, () -> {
+                credit(orderIds, credits, creditedOrders);
+                return credits;
+            });
+        } else {
+            turnsLeft = credit(orderIds, credits, creditedOrders);
+        }
+        credits.forEach(gameEventLog::turnsCredited);
+
+        for (CreditTask task : batch) {
+            // null nếu đơn hàng đã được cộng trước đó (ví dụ: được quét lại trong lúc đang xử lý), kể cả khi
+            // cùng người dùng có đơn hàng khác trong lô; đơn hàng có mặt hai lần trong lô chỉ được trả kết quả một lần
+            boolean credited = creditedOrders.remove(task.orderId);
+            task.result.complete(credited ? turnsLeft.get(task.username) : null);
+        }
+    }
+
+    // Chuyển đơn hàng sang CREDITED và cộng lượt chơi vào users trong một transaction;
+    // trả về số lượt chơi sau khi cộng theo người dùng
+    private Map<String, Integer> credit(Long[] orderIds, Map<String, Integer> credits, Set<Long> creditedOrders) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.query(MARK_CREDITED_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", orderIds)),
+                    rs -> {
+                        creditedOrders.add(rs.getLong("id"));
+                        credits.merge(rs.getString("username"), rs.getInt("turns"), Integer::sum);
+                    });
+            Map<String, Integer> updated = new HashMap<>();
+            if (credits.isEmpty()) {
+                return updated;
+            }
+            jdbcTemplate.query(CREDIT_TURNS_SQL,
+                    ps -> {
+                        ps.setArray(1, ps.getConnection().createArrayOf("text", credits.keySet().toArray()));
+                        ps.setArray(2, ps.getConnection().createArrayOf("integer", credits.values().toArray()));
+                    },
+                    rs -> {
+                        updated.put(rs.getString("username"), rs.getInt("turns"));
+                    });
+            return updated;
+        });
+    }
+
+    private record CreditTask(long orderId, String username, CompletableFuture<Integer> result) {
+    }
+}
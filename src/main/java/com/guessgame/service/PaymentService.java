@@ -0,0 +1,64 @@
+package com.guessgame.service;
+
+import com.guessgame.entity.PaymentOrder;
+import com.guessgame.entity.PaymentStatus;
+import com.guessgame.exception.GuessNumberException;
+import com.guessgame.repository.PaymentOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Quản lý đơn hàng thanh toán MOMO (giả lập).
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentService {
+
+    private final PaymentOrderRepository paymentOrderRepository;
+
+    private final OrderIdGenerator orderIdGenerator;
+
+    private final PaymentCreditWorker paymentCreditWorker;
+
+    /**
+     * Tạo đơn hàng mới ở trạng thái PENDING.
+     *
+     * @param username Người dùng mua lượt chơi.
+     * @param turns    Số lượt chơi của đơn hàng.
+     * @return PaymentOrder đơn hàng đã lưu.
+     */
+    public PaymentOrder createOrder(String username, int turns) {
+        PaymentOrder order = PaymentOrder.builder()
+                .id(orderIdGenerator.nextId())
+                .username(username)
+                .turns(turns)
+                .status(PaymentStatus.PENDING)
+                .createdAt(Instant.now())
+                .build();
+        return paymentOrderRepository.save(order);
+    }
+
+    /**
+     * Xác nhận thanh toán một đơn hàng. Chỉ lần xác nhận đầu tiên được cộng lượt chơi;
+     * các lần xác nhận lặp lại không thay đổi gì.
+     *
+     * @param username Người dùng sở hữu đơn hàng.
+     * @param orderId  Id đơn hàng.
+     * @return Future hoàn thành với số lượt chơi sau khi cộng, hoặc null nếu đơn hàng đã được xác nhận trước đó.
+     * @throws GuessNumberException nếu đơn hàng không tồn tại.
+     */
+    public CompletableFuture<Integer> confirmOrder(String username, long orderId) {
+        int updated = paymentOrderRepository.markPaid(orderId, username, Instant.now(),
+                PaymentStatus.PENDING, PaymentStatus.PAID);
+        if (updated == 0) {
+            if (paymentOrderRepository.findByIdAndUsername(orderId, username).isEmpty()) {
+                throw new GuessNumberException("Đơn hàng không tồn tại!");
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        return paymentCreditWorker.submit(orderId, username);
+    }
+}
@@ -0,0 +1,62 @@
+package com.guessgame.service;
+
+import com.guessgame.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chỉ mục trong bộ nhớ các username/email đã đăng ký, dùng để kiểm tra trước khi đăng ký.
+ * <p>
+ * Dùng Bloom filter: nếu filter trả lời "chưa có" thì chắc chắn username/email còn trống và không cần
+ * truy vấn cơ sở dữ liệu; nếu "có thể đã có" thì cần kiểm tra chính xác bằng cơ sở dữ liệu.
+ * Ràng buộc unique trên bảng {@code users} vẫn là nơi quyết định cuối cùng (ví dụ: người dùng đăng ký
+ * đồng thời hoặc trên node khác).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RegistrationIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${registration.bloom.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${registration.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter usernames;
+
+    private BloomFilter emails;
+
+    @PostConstruct
+    public void load() {
+        usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        emails = new BloomFilter(expectedUsers, falsePositiveRate);
+        jdbcTemplate.query("SELECT username, email FROM users",
+                (RowCallbackHandler) rs -> add(rs.getString("username"), rs.getString("email")));
+        log.info("Đã nạp chỉ mục đăng ký từ bảng users");
+    }
+
+    public boolean mightContainUsername(String username) {
+        return usernames.mightContain(username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return emails.mightContain(email);
+    }
+
+    public void add(String username, String email) {
+        if (username != null) {
+            usernames.put(username);
+        }
+        if (email != null) {
+            emails.put(email);
+        }
+    }
+}
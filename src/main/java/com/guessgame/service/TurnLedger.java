@@ -0,0 +1,321 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.UserBalanceView;
+import com.guessgame.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sổ cái lượt chơi/điểm số trong bộ nhớ (write-behind).
+ * <p>
+ * Khi bật {@code game.ledger.enabled}, lượt chơi và điểm số của người dùng được giữ trong bộ nhớ và
+ * cập nhật nguyên tử bằng CAS, không cần khoá bản ghi trong PostgreSQL. Phần chênh lệch (delta) được
+ * ghi xuống bảng {@code users} theo lô định kỳ sau mỗi {@code game.ledger.flush-interval-ms}.
+ * Dữ liệu chưa được ghi có thể mất nếu tiến trình dừng đột ngột trong khoảng thời gian này.
+ * Sau mỗi lần ghi, tài khoản không còn delta và không được dùng trong {@code game.ledger.idle-evict-ms}
+ * bị loại khỏi bộ nhớ, nên bộ nhớ tỉ lệ với số người chơi đang hoạt động chứ không phải số người từng chơi.
+ * <p>
+ * Khi bật chế độ này, mọi thay đổi lượt chơi/điểm số phải đi qua sổ cái để giá trị trong bộ nhớ
+ * không bị lệch so với cơ sở dữ liệu.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TurnLedger {
+
+    private static final String FLUSH_SQL = "UPDATE users SET turns = turns + ?, score = score + ? WHERE id = ?";
+
+    private final UserRepository userRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+
+    @Value("${game.ledger.enabled:false}")
+    private boolean enabled;
+
+    @Value("${game.ledger.idle-evict-ms:60000}")
+    private long idleEvictMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Trừ một lượt chơi nếu người dùng còn lượt.
+     *
+     * @param username Tên người dùng.
+     * @return true nếu đã trừ được lượt, false nếu người dùng không còn lượt chơi nào.
+     */
+    public boolean tryConsumeTurn(String username) {
+        return update(username, account -> {
+            int current;
+            do {
+                current = account.turns.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!account.turns.compareAndSet(current, current - 1));
+            account.pendingTurns.decrementAndGet();
+            return true;
+        });
+    }
+
+    /**
+     * Cộng điểm cho người dùng.
+     *
+     * @return Điểm số sau khi cộng.
+     */
+    public int addScore(String username, int points) {
+        return update(username, account -> {
+            int score = account.score.addAndGet(points);
+            account.pendingScore.addAndGet(points);
+            return score;
+        });
+    }
+
+    /**
+     * Cộng thêm lượt chơi cho người dùng.
+     *
+     * @return Số lượt chơi sau khi cộng.
+     */
+    public int addTurns(String username, int turns) {
+        return update(username, account -> {
+            int total = account.turns.addAndGet(turns);
+            account.pendingTurns.addAndGet(turns);
+            return total;
+        });
+    }
+
+    /**
+     * Cộng vào bộ nhớ số lượt chơi đã được ghi thẳng xuống cơ sở dữ liệu (ví dụ: lượt chơi đã thanh toán),
+     * không tạo delta chờ ghi. Tài khoản của các người dùng được nạp và giữ lại trước khi {@code write} chạy,
+     * nên giá trị trong bộ nhớ chắc chắn chưa gồm phần vừa ghi và tài khoản không bị loại khỏi bộ nhớ giữa chừng.
+     *
+     * @param usernames Người dùng có thể được cộng lượt.
+     * @param write     Ghi và commit xuống cơ sở dữ liệu, trả về số lượt đã cộng theo người dùng.
+     * @return Số lượt chơi sau khi cộng của những người dùng được cộng.
+     */
+    public Map<String, Integer> addCommittedTurns(Collection<String> usernames, Supplier<Map<String, Integer>> write) {
+        Map<String, Account> pinned = new HashMap<>();
+        try {
+            for (String username : usernames) {
+                if (!pinned.containsKey(username)) {
+                    try {
+                        pinned.put(username, pin(username));
+                    } catch (UsernameNotFoundException e) {
+                        // Người dùng không còn tồn tại thì câu lệnh ghi cũng không cộng được gì
+                    }
+                }
+            }
+            Map<String, Integer> turnsLeft = new HashMap<>();
+            write.get().forEach((username, turns) -> {
+                Account account = pinned.get(username);
+                if (account != null) {
+                    turnsLeft.put(username, account.turns.addAndGet(turns));
+                }
+            });
+            return turnsLeft;
+        } finally {
+            pinned.values().forEach(Account::exit);
+        }
+    }
+
+    public long getUserId(String username) {
+        return account(username).userId;
+    }
+
+    public int getScore(String username) {
+        return account(username).score.get();
+    }
+
+    public int getTurns(String username) {
+        return account(username).turns.get();
+    }
+
+    /**
+     * Trả về lượt chơi/điểm số trong bộ nhớ nếu người dùng đã được nạp vào sổ cái.
+     */
+    public Optional<Snapshot> find(String username) {
+        Account account = accounts.get(username);
+        return account == null
+                ? Optional.empty()
+                : Optional.of(new Snapshot(account.score.get(), account.turns.get()));
+    }
+
+    /**
+     * Ghi toàn bộ delta đang chờ xuống cơ sở dữ liệu bằng một lệnh UPDATE theo lô trong một transaction,
+     * sau đó loại khỏi bộ nhớ các tài khoản đã ghi xong và không được dùng gần đây.
+     */
+    @Scheduled(fixedDelayString = "${game.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        if (!enabled || accounts.isEmpty()) {
+            return;
+        }
+
+        List<Account> flushed = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Account account : accounts.values()) {
+            int turns = account.pendingTurns.getAndSet(0);
+            int score = account.pendingScore.getAndSet(0);
+            if (turns == 0 && score == 0) {
+                continue;
+            }
+            flushed.add(account);
+            batch.add(new Object[]{turns, score, account.userId});
+        }
+        if (batch.isEmpty()) {
+            evictIdle();
+            return;
+        }
+
+        try {
+            // Cả lô commit hoặc rollback cùng nhau, nên khi lỗi có thể trả lại toàn bộ delta mà không cộng trùng
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            evictIdle();
+        } catch (RuntimeException e) {
+            // Transaction đã rollback: trả lại delta để lần ghi sau thử lại
+            for (int i = 0; i < flushed.size(); i++) {
+                Object[] row = batch.get(i);
+                flushed.get(i).pendingTurns.addAndGet((int) row[0]);
+                flushed.get(i).pendingScore.addAndGet((int) row[1]);
+            }
+            log.error("Không thể ghi sổ cái lượt chơi xuống cơ sở dữ liệu, sẽ thử lại", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    // Chỉ loại tài khoản đã được ghi hết (không còn delta): lần dùng sau nạp lại giá trị mới nhất từ cơ sở dữ liệu
+    private void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleEvictMs;
+        for (Map.Entry<String, Account> entry : accounts.entrySet()) {
+            Account account = entry.getValue();
+            if (account.trySeal(idleBefore)) {
+                accounts.remove(entry.getKey(), account);
+            }
+        }
+    }
+
+    // Thay đổi tài khoản; nếu tài khoản vừa bị loại khỏi bộ nhớ thì nạp lại và thử lại
+    private <T> T update(String username, Function<Account, T> operation) {
+        while (true) {
+            Account account = account(username);
+            if (account.enter()) {
+                try {
+                    return operation.apply(account);
+                } finally {
+                    account.exit();
+                }
+            }
+        }
+    }
+
+    // Nạp tài khoản và giữ lại (không thể bị loại khỏi bộ nhớ) cho đến khi gọi exit()
+    private Account pin(String username) {
+        while (true) {
+            Account account = account(username);
+            if (account.enter()) {
+                return account;
+            }
+        }
+    }
+
+    // Truy vấn nằm ngoài ConcurrentHashMap để không giữ khoá bin của map trong lúc chờ cơ sở dữ liệu.
+    // Tài khoản chỉ vắng mặt sau khi đã được ghi hết và loại khỏi bộ nhớ, nên giá trị đọc được là mới nhất;
+    // nếu nhiều luồng cùng nạp, putIfAbsent giữ lại một tài khoản duy nhất.
+    private Account account(String username) {
+        Account account = accounts.get(username);
+        if (account != null) {
+            return account;
+        }
+        UserBalanceView user = userRepository.findBalanceByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy"));
+        Account loaded = new Account(user.id(), user.turns(), user.score());
+        Account existing = accounts.putIfAbsent(username, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Ảnh chụp lượt chơi/điểm số của một người dùng.
+     */
+    public record Snapshot(int score, int turns) {
+    }
+
+    private static final class Account {
+        private final Long userId;
+        private final AtomicInteger turns;
+        private final AtomicInteger score;
+        private final AtomicInteger pendingTurns = new AtomicInteger();
+        private final AtomicInteger pendingScore = new AtomicInteger();
+        // Số luồng đang thay đổi tài khoản; -1 khi tài khoản đã bị niêm phong để loại khỏi bộ nhớ
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long lastUsedAt = System.currentTimeMillis();
+
+        private Account(Long userId, int turns, int score) {
+            this.userId = userId;
+            this.turns = new AtomicInteger(turns);
+            this.score = new AtomicInteger(score);
+        }
+
+        private boolean enter() {
+            int current;
+            do {
+                current = active.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!active.compareAndSet(current, current + 1));
+            lastUsedAt = System.currentTimeMillis();
+            return true;
+        }
+
+        private void exit() {
+            active.decrementAndGet();
+        }
+
+        private boolean isClean() {
+            return pendingTurns.get() == 0 && pendingScore.get() == 0;
+        }
+
+        // Niêm phong tài khoản sạch, không được dùng từ idleBefore và không có luồng nào đang thay đổi
+        private boolean trySeal(long idleBefore) {
+            if (!isClean() || lastUsedAt > idleBefore || !active.compareAndSet(0, -1)) {
+                return false;
+            }
+            // Một luồng có thể đã thay đổi tài khoản ngay trước khi niêm phong
+            if (!isClean()) {
+                active.set(0);
+                return false;
+            }
+            return true;
+        }
+    }
+}
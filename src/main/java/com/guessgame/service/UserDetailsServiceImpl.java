@@ -1,8 +1,12 @@
 package com.guessgame.service;
 
-import com.guessgame.entity.User;
+import com.guessgame.dto.UserCredentialsView;
 import com.guessgame.repository.UserRepository;
+import com.guessgame.util.BoundedExpiringCache;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -14,14 +18,61 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    @Value("${security.user-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${security.user-cache.ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    // Principal (không chứa mật khẩu) dùng cho các request đã có JWT hợp lệ
+    private BoundedExpiringCache<String, UserDetails> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = new BoundedExpiringCache<>(cacheMaxSize);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        UserCredentialsView user = userRepository.findCredentialsByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy với tên là : " + username));
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole())
+        return User
+                .withUsername(user.username())
+                .password(user.password())
+                .roles(user.role())
                 .build();
     }
+
+    /**
+     * Lấy principal của người dùng đã xác thực bằng JWT, có lưu đệm theo TTL.
+     * Principal không chứa mật khẩu nên chỉ dùng để gắn vào SecurityContext, không dùng để đăng nhập.
+     *
+     * @param username Tên người dùng lấy từ token.
+     * @return UserDetails với username và quyền của người dùng.
+     * @throws UsernameNotFoundException nếu người dùng không tồn tại.
+     */
+    public UserDetails loadPrincipal(String username) throws UsernameNotFoundException {
+        UserDetails principal = principals.get(username);
+        if (principal != null) {
+            return principal;
+        }
+        String role = userRepository.findRoleByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Người dùng không tìm thấy với tên là : " + username));
+        principal = User
+                .withUsername(username)
+                .password("")
+                .roles(role)
+                .build();
+        principals.put(username, principal, System.currentTimeMillis() + cacheTtlMs);
+        return principal;
+    }
+
+    /**
+     * Xoá principal khỏi bộ đệm. Phải gọi mỗi khi quyền hoặc mật khẩu của người dùng thay đổi.
+     *
+     * @param username Tên người dùng.
+     */
+    public void evict(String username) {
+        principals.remove(username);
+    }
 }
@@ -0,0 +1,144 @@
+package com.guessgame.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bộ nhớ đệm có giới hạn số phần tử, mỗi phần tử có thời điểm hết hạn riêng.
+ * <p>
+ * Phần tử hết hạn bị loại khi được đọc. Khi đầy, bộ đệm dọn các phần tử đã hết hạn; nếu vẫn đầy thì
+ * loại bớt một phần phần tử bất kỳ để giữ kích thước trong giới hạn.
+ *
+ * @param <K> Kiểu khoá.
+ * @param <V> Kiểu giá trị.
+ */
+public class BoundedExpiringCache<K, V> {
+
+    private final int maxSize;
+
+    // Đồng hồ (epoch millis) dùng để so với thời điểm hết hạn
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<K, Holder<V>> map = new ConcurrentHashMap<>();
+
+    public BoundedExpiringCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    public BoundedExpiringCache(int maxSize, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Đọc giá trị còn hạn theo khoá.
+     *
+     * @return Giá trị, hoặc null nếu không có hoặc đã hết hạn.
+     */
+    public V get(K key) {
+        Holder<V> holder = map.get(key);
+        if (holder == null) {
+            return null;
+        }
+        if (holder.expiresAt <= clock.getAsLong()) {
+            map.remove(key, holder);
+            return null;
+        }
+        return holder.value;
+    }
+
+    /**
+     * Lưu giá trị đến thời điểm hết hạn cho trước.
+     *
+     * @param expiresAt Thời điểm hết hạn (epoch millis).
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (map.size() >= maxSize) {
+            evict();
+        }
+        map.put(key, new Holder<>(value, expiresAt));
+    }
+
+    /**
+     * Đọc giá trị còn hạn, hoặc nạp và lưu giá trị mới nếu chưa có.
+     * Nhiều luồng có thể cùng nạp một khoá; giá trị ghi sau cùng được giữ lại.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader, long expiresAt) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value, expiresAt);
+        }
+        return value;
+    }
+
+    /**
+     * Lưu giá trị nếu khoá chưa có giá trị còn hạn; ngược lại giữ giá trị hiện có. Thao tác là nguyên tử:
+     * các luồng gọi đồng thời với cùng khoá đều nhận về cùng một giá trị.
+     *
+     * @param expiresAt Thời điểm hết hạn (epoch millis) nếu giá trị mới được lưu.
+     * @return Giá trị đang được lưu cho khoá sau lời gọi.
+     */
+    public V putIfAbsent(K key, V value, long expiresAt) {
+        if (map.size() >= maxSize) {
+            evict();
+        }
+        long now = clock.getAsLong();
+        return map.compute(key, (k, existing) -> existing != null && existing.expiresAt > now
+                ? existing
+                : new Holder<>(value, expiresAt)).value;
+    }
+
+    /**
+     * Gia hạn phần tử còn hạn đến thời điểm hết hạn mới; phần tử đã hết hạn bị loại.
+     *
+     * @param expiresAt Thời điểm hết hạn mới (epoch millis).
+     * @return Giá trị của phần tử, hoặc null nếu không có hoặc đã hết hạn.
+     */
+    public V touch(K key, long expiresAt) {
+        long now = clock.getAsLong();
+        Holder<V> holder = map.computeIfPresent(key, (k, existing) -> existing.expiresAt > now
+                ? new Holder<>(existing.value, expiresAt)
+                : null);
+        return holder == null ? null : holder.value;
+    }
+
+    public void remove(K key) {
+        map.remove(key);
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    private void evict() {
+        long now = clock.getAsLong();
+        map.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now);
+        if (map.size() < maxSize) {
+            return;
+        }
+        // Vẫn đầy: loại khoảng 10% phần tử để không phải dọn lại ở mỗi lần ghi
+        int excess = map.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<Map.Entry<K, Holder<V>>> iterator = map.entrySet().iterator();
+        while (excess-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Holder<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.guessgame.util;
+
+/**
+ * Tạo ETag từ bộ đếm phiên bản trong bộ nhớ hoặc từ chính nội dung phản hồi.
+ * <p>
+ * Bộ đếm bắt đầu lại sau khi khởi động lại ứng dụng nên ETag kèm thời điểm khởi động của tiến trình,
+ * tránh trùng với ETag mà client nhận được từ lần chạy trước.
+ */
+public final class ETags {
+
+    private static final String INSTANCE = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + INSTANCE + "-" + version + "\"";
+    }
+
+    /**
+     * ETag tính từ nội dung phản hồi: giống nhau trên mọi node và qua các lần khởi động lại,
+     * chỉ đổi khi nội dung đổi.
+     *
+     * @param content Chuỗi đại diện cho nội dung phản hồi (không chứa dấu nháy kép).
+     */
+    public static String ofContent(String content) {
+        return "\"" + content + "\"";
+    }
+}
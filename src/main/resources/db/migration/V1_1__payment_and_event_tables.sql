@@ -0,0 +1,33 @@
+-- Bảng đơn hàng thanh toán và nhật ký sự kiện, chạy cả trên cơ sở dữ liệu đã baseline ở V1.
+-- IF NOT EXISTS: cơ sở dữ liệu tạo bằng ddl-auto=update đã có sẵn các bảng này (cùng tên cột và ràng buộc);
+-- cơ sở dữ liệu tạo theo câu lệnh thủ công trong README trước đây chỉ có bảng users.
+
+CREATE TABLE IF NOT EXISTS payment_orders
+(
+    id           bigint                   NOT NULL
+        CONSTRAINT payment_orders_pkey PRIMARY KEY,
+    confirmed_at timestamp(6) with time zone,
+    created_at   timestamp(6) with time zone NOT NULL,
+    credited_at  timestamp(6) with time zone,
+    status       varchar(16)              NOT NULL
+        CONSTRAINT payment_orders_status_check CHECK (status IN ('PENDING', 'PAID', 'CREDITED')),
+    turns        integer                  NOT NULL,
+    username     varchar(255)             NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS game_events
+(
+    id            bigint GENERATED BY DEFAULT AS IDENTITY
+        CONSTRAINT game_events_pkey PRIMARY KEY,
+    created_at    timestamp(6) with time zone NOT NULL,
+    guess         integer,
+    score_delta   integer                  NOT NULL,
+    server_number integer,
+    turns_delta   integer                  NOT NULL,
+    type          varchar(16)              NOT NULL
+        CONSTRAINT game_events_type_check CHECK (type IN ('GUESS', 'TURNS_CREDITED')),
+    username      varchar(255)             NOT NULL,
+    win           boolean
+);
+
+CREATE INDEX IF NOT EXISTS idx_game_events_username ON game_events (username);
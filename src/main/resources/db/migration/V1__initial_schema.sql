@@ -0,0 +1,17 @@
+-- Lược đồ ban đầu: chỉ bảng users, giống hệt lược đồ Hibernate tạo với ddl-auto=update (kể cả tên ràng buộc).
+-- Cơ sở dữ liệu đã có sẵn được baseline ở phiên bản 1 nên không chạy file này; các bảng khác được tạo ở các
+-- migration sau để cũng được tạo trên các cơ sở dữ liệu đó.
+
+CREATE TABLE users
+(
+    id       bigint GENERATED BY DEFAULT AS IDENTITY
+        CONSTRAINT users_pkey PRIMARY KEY,
+    email    varchar(255) NOT NULL
+        CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE,
+    password varchar(255),
+    role     varchar(255),
+    score    integer      NOT NULL,
+    turns    integer      NOT NULL,
+    username varchar(255) NOT NULL
+        CONSTRAINT ukr43af9ap4edm43mmtq01oddj6 UNIQUE
+);
@@ -0,0 +1,42 @@
+-- Index cho các truy vấn nóng và fillfactor cho bảng users. Chạy được trên cả cơ sở dữ liệu tạo bằng ddl-auto=update
+-- và cơ sở dữ liệu tạo theo câu lệnh thủ công trong README trước đây (cả hai được baseline ở V1).
+
+-- Bảng xếp hạng được phục vụ từ LeaderboardIndex trong bộ nhớ (nạp bằng một lần quét users), không truy vấn
+-- theo score: bỏ index theo score trong hướng dẫn tạo bảng thủ công trước đây, vốn phải cập nhật ở mỗi lần
+-- score thay đổi và làm mất HOT update.
+DROP INDEX IF EXISTS idx_users_score_desc;
+
+-- Tra cứu theo username (đăng nhập, xác thực JWT, khoá bản ghi khi đoán số): ràng buộc unique kèm các cột
+-- id, password, role để findCredentialsByUsername/findRoleByUsername chỉ cần index-only scan.
+-- Không đưa turns/score vào index: turns đổi ở mỗi lượt đoán và phải giữ được HOT update.
+-- Ràng buộc cũ do Hibernate đặt tên (cũng có trong câu lệnh thủ công của README); IF EXISTS vì cơ sở dữ liệu tạo
+-- theo cách khác có thể không có ràng buộc với đúng tên này.
+ALTER TABLE users DROP CONSTRAINT IF EXISTS ukr43af9ap4edm43mmtq01oddj6;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username) INCLUDE (id, password, role);
+
+-- Email phải là duy nhất: existsByEmail khi đăng ký không chặn được hai request đồng thời, ràng buộc này thì có. ddl-auto=update đã tạo uk6dotkott2kjsp8vw4d0m25fb7,
+-- câu lệnh thủ công trong README thì không: chỉ thêm khi chưa có ràng buộc unique nào chỉ trên cột email.
+-- Migration dừng lại nếu đã có email trùng, cần xử lý dữ liệu trùng trước.
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_constraint c
+                                JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+                       WHERE c.conrelid = 'users'::regclass
+                         AND c.contype = 'u'
+                         AND cardinality(c.conkey) = 1
+                         AND a.attname = 'email') THEN
+            ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+        END IF;
+    END
+$$;
+
+-- turns/score được UPDATE liên tục: chừa 20% mỗi trang để phiên bản mới của dòng nằm cùng trang (HOT update),
+-- không phải cập nhật index khi chỉ turns thay đổi. Chỉ áp dụng cho trang mới; chạy VACUUM FULL users
+-- (hoặc CLUSTER) để áp dụng cho dữ liệu đã có.
+ALTER TABLE users SET (fillfactor = 80);
+
+-- Quét lại đơn hàng đã thanh toán nhưng chưa cộng lượt (findByStatusAndConfirmedAtBefore(PAID, ...)):
+-- index một phần chỉ chứa các đơn hàng đang chờ nên luôn nhỏ.
+CREATE INDEX idx_payment_orders_paid_confirmed_at ON payment_orders (confirmed_at) WHERE status = 'PAID';
@@ -0,0 +1,17 @@
+-- Số dư đầu kỳ trong nhật ký game_events: người dùng có sẵn điểm số/lượt chơi trước khi nhật ký được ghi
+-- (hoặc có sự kiện bị bỏ khi nhật ký còn bỏ sự kiện lúc hàng đợi đầy) được ghi thêm một sự kiện OPENING_BALANCE
+-- bằng phần chênh lệch, để tổng sự kiện của mỗi người dùng bằng users.score/users.turns.
+-- Người dùng mới bắt đầu với 0 điểm, 0 lượt nên không cần sự kiện này.
+
+ALTER TABLE game_events DROP CONSTRAINT IF EXISTS game_events_type_check;
+ALTER TABLE game_events ADD CONSTRAINT game_events_type_check
+    CHECK (type IN ('GUESS', 'TURNS_CREDITED', 'OPENING_BALANCE'));
+
+INSERT INTO game_events (type, username, score_delta, turns_delta, created_at)
+SELECT 'OPENING_BALANCE', u.username, u.score - coalesce(e.score, 0), u.turns - coalesce(e.turns, 0), now()
+FROM users u
+         LEFT JOIN (SELECT username, sum(score_delta) AS score, sum(turns_delta) AS turns
+                    FROM game_events
+                    GROUP BY username) e ON e.username = u.username
+WHERE u.score <> coalesce(e.score, 0)
+   OR u.turns <> coalesce(e.turns, 0);
@@ -0,0 +1,70 @@
+package com.guessgame.controller;
+
+import com.guessgame.exception.GlobalExceptionHandler;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.repository.UserRepository;
+import com.guessgame.security.JwtUtil;
+import com.guessgame.security.PasswordHashingService;
+import com.guessgame.service.AuthService;
+import com.guessgame.service.LeaderboardIndex;
+import com.guessgame.service.RegistrationIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthControllerTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final PasswordHashingService passwordHashingService = new PasswordHashingService(1, 1, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void busyBcryptPoolAnswers503() throws Exception {
+        AuthService authService = mock(AuthService.class);
+        when(authService.findCredentials(any())).thenReturn(Optional.empty());
+        AuthController authController = new AuthController(mock(JwtUtil.class), mock(UserRepository.class),
+                mock(PasswordEncoder.class), new LeaderboardIndex(null), passwordHashingService, authService,
+                mock(RegistrationIndex.class), GameMetrics.noop());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        // Một tác vụ đang chạy và một tác vụ trong hàng đợi: pool bcrypt đã đầy
+        passwordHashingService.submit(this::block);
+        passwordHashingService.submit(this::block);
+
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"player\",\"password\":\"secret\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    private boolean block() {
+        try {
+            return release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
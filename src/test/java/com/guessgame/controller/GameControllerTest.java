@@ -0,0 +1,38 @@
+package com.guessgame.controller;
+
+import com.guessgame.dto.UserLeaderboardDTO;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.service.LeaderboardIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameControllerTest {
+
+    @Test
+    void leaderboardPagePastTheEndIsEmptyEvenWhenOffsetOverflowsInt() {
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex(null);
+        for (int id = 1; id <= 30; id++) {
+            leaderboardIndex.update(id, "user" + id, id);
+        }
+        GameController gameController = new GameController(null, leaderboardIndex, GameMetrics.noop(), null);
+        ReflectionTestUtils.setField(gameController, "maxPageSize", 100);
+
+        List<UserLeaderboardDTO> page = gameController.getLeaderboard(20, 1, request()).getBody();
+        assertEquals(List.of("user10"), page.stream().map(UserLeaderboardDTO::getUsername).toList());
+        assertTrue(gameController.getLeaderboard(3, 10, request()).getBody().isEmpty());
+        // 429496730 * 10 tràn int thành số âm
+        assertTrue(gameController.getLeaderboard(429_496_730, 10, request()).getBody().isEmpty());
+        assertTrue(gameController.getLeaderboard(Integer.MAX_VALUE, 100, request()).getBody().isEmpty());
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/leaderboard"));
+    }
+}
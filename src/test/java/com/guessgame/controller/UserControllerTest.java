@@ -0,0 +1,71 @@
+package com.guessgame.controller;
+
+import com.guessgame.dto.UserProfileView;
+import com.guessgame.repository.UserRepository;
+import com.guessgame.service.TurnLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserControllerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final TurnLedger turnLedger = mock(TurnLedger.class);
+
+    private final UserController userController = new UserController(userRepository, turnLedger, null);
+
+    private final UserDetails player = User.withUsername("player").password("").roles("USER").build();
+
+    @Test
+    void notModifiedOnlyWhileTheProfileIsUnchanged() {
+        when(userRepository.findProfileByUsername("player")).thenReturn(Optional.of(new UserProfileView("p@x.com", 3, 5)));
+        when(turnLedger.find("player")).thenReturn(Optional.empty());
+
+        ResponseEntity<?> first = userController.getCurrentUser(player, request(null));
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+
+        ResponseEntity<?> unchanged = userController.getCurrentUser(player, request(etag));
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+
+        // Điểm số đổi (ví dụ: do node khác ghi) thì ETag cũ không còn hợp lệ
+        when(userRepository.findProfileByUsername("player")).thenReturn(Optional.of(new UserProfileView("p@x.com", 4, 5)));
+        ResponseEntity<?> changed = userController.getCurrentUser(player, request(etag));
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void etagFollowsTheLedgerWhenItHoldsNewerTurns() {
+        when(userRepository.findProfileByUsername("player")).thenReturn(Optional.of(new UserProfileView("p@x.com", 3, 5)));
+        when(turnLedger.find("player")).thenReturn(Optional.of(new TurnLedger.Snapshot(3, 5)));
+        String etag = userController.getCurrentUser(player, request(null)).getHeaders().getETag();
+
+        when(turnLedger.find("player")).thenReturn(Optional.of(new TurnLedger.Snapshot(3, 4)));
+        ResponseEntity<?> changed = userController.getCurrentUser(player, request(etag));
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request);
+    }
+}
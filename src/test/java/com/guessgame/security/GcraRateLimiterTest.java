@@ -0,0 +1,134 @@
+package com.guessgame.security;
+
+import com.guessgame.config.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GcraRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+    private final AtomicLong millis = new AtomicLong(1_000);
+
+    private GcraRateLimiter limiter(RateLimitStore store) {
+        return new GcraRateLimiter(store, nanos::get, 60_000);
+    }
+
+    @Test
+    void allowsBurstThenRejectsUntilRefill() {
+        GcraRateLimiter rateLimiter = limiter(new InMemoryRateLimitStore(100, millis::get));
+        RateLimitRule rule = RateLimitRule.of("test", 20, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("user:a", rule));
+        }
+        long wait = rateLimiter.tryAcquire("user:a", rule);
+        assertTrue(wait > 0 && wait <= rule.emissionIntervalNanos());
+
+        // Khoá khác có giới hạn riêng
+        assertEquals(0, rateLimiter.tryAcquire("user:b", rule));
+
+        nanos.addAndGet(wait - 1);
+        assertEquals(1, rateLimiter.tryAcquire("user:a", rule));
+        nanos.incrementAndGet();
+        assertEquals(0, rateLimiter.tryAcquire("user:a", rule));
+        assertTrue(rateLimiter.tryAcquire("user:a", rule) > 0);
+    }
+
+    @Test
+    void concurrentBurstOnNewKeyAdmitsOnlyTheBurst() throws Exception {
+        GcraRateLimiter rateLimiter = limiter(new InMemoryRateLimitStore(100, millis::get));
+        // Đồng hồ đứng yên: chỉ đúng lượng burst được cho qua
+        assertEquals(5, concurrentAllowed(List.of(rateLimiter), RateLimitRule.of("test", 1, 5), "ip:new"));
+    }
+
+    @Test
+    void limitersSharingAStoreEnforceOneCombinedLimit() throws Exception {
+        RateLimitStore store = new InMemoryRateLimitStore(100, millis::get);
+        GcraRateLimiter node1 = limiter(store);
+        GcraRateLimiter node2 = limiter(store);
+        RateLimitRule rule = RateLimitRule.of("test", 1, 5);
+
+        // Xen kẽ hai node: tổng cộng chỉ được burst
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if ((i % 2 == 0 ? node1 : node2).tryAcquire("user:a", rule) == 0) {
+                allowed++;
+            }
+        }
+        assertEquals(5, allowed);
+
+        assertEquals(5, concurrentAllowed(List.of(node1, node2), RateLimitRule.of("test", 1, 5), "ip:new"));
+    }
+
+    @Test
+    void everyAccessRefreshesTheBucketTtl() {
+        GcraRateLimiter rateLimiter = limiter(new InMemoryRateLimitStore(100, millis::get));
+        RateLimitRule rule = RateLimitRule.of("test", 1, 1);
+
+        assertEquals(0, rateLimiter.tryAcquire("user:a", rule));
+        // Khoá bị truy cập liên tục quá TTL ban đầu vẫn giữ trạng thái bị giới hạn
+        for (int i = 0; i < 5; i++) {
+            millis.addAndGet(40_000);
+            assertTrue(rateLimiter.tryAcquire("user:a", rule) > 0);
+        }
+
+        // Không truy cập quá TTL thì khoá hết hạn và bắt đầu lại
+        millis.addAndGet(60_000);
+        assertEquals(0, rateLimiter.tryAcquire("user:a", rule));
+    }
+
+    @Test
+    void unknownBackendFailsFast() {
+        RateLimitConfig config = new RateLimitConfig();
+        assertInstanceOf(GcraRateLimiter.class, config.rateLimiter("local", 100, 60_000, Optional.empty()));
+        assertInstanceOf(GcraRateLimiter.class, config.rateLimiter("shared", 100, 60_000, Optional.empty()));
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> config.rateLimiter("redis", 100, 60_000, Optional.empty()));
+        assertTrue(e.getMessage().contains("rate-limit.backend=redis"));
+    }
+
+    private int concurrentAllowed(List<GcraRateLimiter> limiters, RateLimitRule rule, String key) throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                GcraRateLimiter rateLimiter = limiters.get(t % limiters.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < 10; i++) {
+                        if (rateLimiter.tryAcquire(key, rule) == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+            int allowed = 0;
+            for (Future<Integer> future : futures) {
+                allowed += future.get(10, TimeUnit.SECONDS);
+            }
+            return allowed;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
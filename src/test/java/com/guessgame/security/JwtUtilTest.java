@@ -0,0 +1,60 @@
+package com.guessgame.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-with-at-least-32-characters";
+
+    @Test
+    void cachesVerifiedTokensOnly() {
+        JwtUtil jwtUtil = jwtUtil(3_600_000);
+        String token = jwtUtil.generateToken("player");
+
+        assertNull(jwtUtil.cachedUsername(token));
+        assertEquals("player", jwtUtil.validateAndExtractUsername(token));
+        assertEquals("player", jwtUtil.cachedUsername(token));
+        assertEquals("player", jwtUtil.validateAndExtractUsername(token));
+
+        // Chữ ký sai: bị từ chối và không được lưu đệm
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.validateAndExtractUsername(tampered));
+        assertNull(jwtUtil.cachedUsername(tampered));
+    }
+
+    @Test
+    void rejectsExpiredTokensWithoutCachingThem() {
+        JwtUtil jwtUtil = jwtUtil(-60_000);
+        String expired = jwtUtil.generateToken("player");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateAndExtractUsername(expired));
+        assertNull(jwtUtil.cachedUsername(expired));
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateAndExtractUsername(expired));
+    }
+
+    @Test
+    void tokensFromAnotherKeyAreRejected() {
+        JwtUtil other = jwtUtil(3_600_000);
+        ReflectionTestUtils.setField(other, "secretKey", SECRET.replace('t', 'x'));
+        other.init();
+        String foreign = other.generateToken("player");
+
+        assertThrows(JwtException.class, () -> jwtUtil(3_600_000).validateAndExtractUsername(foreign));
+    }
+
+    private static JwtUtil jwtUtil(long expirationMs) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", expirationMs);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
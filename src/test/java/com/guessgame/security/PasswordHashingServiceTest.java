@@ -0,0 +1,64 @@
+package com.guessgame.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // Pool bcrypt: 1 luồng, hàng đợi 1; pool follow-up: 1 luồng, hàng đợi 1
+    private final PasswordHashingService service = new PasswordHashingService(1, 1, 1, 1);
+
+    // Hàng đợi bcrypt đủ lớn để chỉ pool follow-up bị đầy
+    private final PasswordHashingService followUpBound = new PasswordHashingService(1, 10, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+        followUpBound.shutdown();
+    }
+
+    @Test
+    void fullBcryptPoolRejectsImmediately() {
+        service.submit(this::block);
+        service.submit(this::block);
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit(() -> "hash"));
+    }
+
+    @Test
+    void fullFollowUpPoolFailsTheFutureInsteadOfQueueingWithoutBound() throws Exception {
+        // Một phần việc đang chạy và một phần việc trong hàng đợi của pool follow-up
+        CompletableFuture<String> running = followUpBound.submit(() -> "a", hash -> block());
+        CompletableFuture<String> queued = followUpBound.submit(() -> "b", hash -> hash);
+        CompletableFuture<String> rejected = followUpBound.submit(() -> "c", hash -> hash);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        release.countDown();
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private String block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,83 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.UserCredentialsView;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+
+    // Độ khó thấp để kiểm thử chạy nhanh; mật khẩu băm với độ khó 4 được coi là cần băm lại
+    private final BCryptPasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder(5));
+
+    private final AuthService authService = authService();
+
+    @Test
+    void weakerStoredHashIsRehashedAndSavedOnLogin() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        when(userRepository.findCredentialsByUsername("player"))
+                .thenReturn(Optional.of(new UserCredentialsView("player", weakHash, "USER")));
+
+        AuthService.Verified verified = authService.verify(authService.findCredentials("player"), "secret").orElseThrow();
+        assertEquals("player", verified.username());
+        assertTrue(verified.upgradedHash().startsWith("$2a$05$"));
+        assertTrue(passwordEncoder.matches("secret", verified.upgradedHash()));
+        // Kiểm tra mật khẩu không ghi gì; việc ghi nằm ở completeLogin
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+
+        assertEquals("player", authService.completeLogin(verified));
+        verify(userRepository).updatePassword("player", verified.upgradedHash());
+        verify(userDetailsService).evict("player");
+    }
+
+    @Test
+    void currentHashIsNotRehashed() {
+        String hash = passwordEncoder.encode("secret");
+        when(userRepository.findCredentialsByUsername("player"))
+                .thenReturn(Optional.of(new UserCredentialsView("player", hash, "USER")));
+
+        AuthService.Verified verified = authService.verify(authService.findCredentials("player"), "secret").orElseThrow();
+        assertNull(verified.upgradedHash());
+        authService.completeLogin(verified);
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+        assertTrue(authService.verify(authService.findCredentials("player"), "wrong").isEmpty());
+    }
+
+    @Test
+    void unknownUsernameIsCheckedAgainstTheDummyHash() {
+        when(userRepository.findCredentialsByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertTrue(authService.verify(authService.findCredentials("ghost"), "secret").isEmpty());
+        assertTrue(authService.verify(authService.findCredentials(null), null).isEmpty());
+
+        // Vẫn chạy bcrypt (với hash giả) để thời gian phản hồi giống mật khẩu sai
+        verify(passwordEncoder).matches(eq("secret"), anyString());
+        verify(passwordEncoder).matches(eq(""), anyString());
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    private AuthService authService() {
+        AuthService service = new AuthService(userRepository, passwordEncoder, userDetailsService, GameMetrics.noop());
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,81 @@
+package com.guessgame.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClusterLeaderboardTest {
+
+    private static final int TOP_K = 5;
+
+    private final LoopbackLeaderboardTransport transport = new LoopbackLeaderboardTransport();
+
+    private final List<LeaderboardIndex> indexes = new ArrayList<>();
+
+    private final List<ClusterLeaderboard> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void startNodes() {
+        for (int i = 0; i < 3; i++) {
+            LeaderboardIndex index = new LeaderboardIndex(null);
+            ClusterLeaderboard node = new ClusterLeaderboard(index, transport, "node-" + i, TOP_K, 60_000);
+            node.start();
+            indexes.add(index);
+            nodes.add(node);
+        }
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(ClusterLeaderboard::stop);
+    }
+
+    @Test
+    void sendsOnlyLocalTopKOfChangedUsers() {
+        for (int id = 1; id <= 20; id++) {
+            indexes.get(0).update(id, "user" + id, id);
+        }
+
+        assertEquals(TOP_K, nodes.get(0).sync());
+        assertEquals(0, nodes.get(0).sync());
+
+        List<String> top = indexes.get(1).top(10).stream().map(LeaderboardIndex.Entry::username).toList();
+        assertEquals(List.of("user20", "user19", "user18", "user17", "user16"), top);
+    }
+
+    @Test
+    void everyNodeConvergesToGlobalTopK() {
+        Random random = new Random(7);
+        Map<String, LeaderboardIndex.Entry> expected = new HashMap<>();
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                int id = random.nextInt(200) + 1;
+                String username = "user" + id;
+                LeaderboardIndex.Entry old = expected.get(username);
+                int score = (old == null ? 0 : old.score()) + random.nextInt(3) * 10;
+                expected.put(username, new LeaderboardIndex.Entry(id, username, score));
+                // Mỗi lượt đoán có thể rơi vào node bất kỳ
+                indexes.get(random.nextInt(indexes.size())).update(id, username, score);
+            }
+            nodes.forEach(ClusterLeaderboard::sync);
+        }
+
+        List<LeaderboardIndex.Entry> globalTop = expected.values().stream()
+                .sorted(Comparator.comparingInt(LeaderboardIndex.Entry::score).reversed()
+                        .thenComparingLong(LeaderboardIndex.Entry::id))
+                .limit(TOP_K)
+                .toList();
+        for (LeaderboardIndex index : indexes) {
+            assertEquals(globalTop, index.top(TOP_K));
+        }
+    }
+}
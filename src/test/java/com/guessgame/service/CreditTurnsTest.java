@@ -0,0 +1,92 @@
+package com.guessgame.service;
+
+import com.guessgame.entity.User;
+import com.guessgame.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Kiểm thử cộng lượt chơi bằng {@code UPDATE ... RETURNING} với PostgreSQL thật.
+ */
+@SpringBootTest
+class CreditTurnsTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String username;
+
+    @BeforeEach
+    void createUser() {
+        username = "credit" + System.nanoTime();
+        userRepository.save(User.builder().username(username).email(username + "@test.local")
+                .password("x").role("USER").build());
+    }
+
+    @Test
+    void concurrentCreditsAreNotLost() throws Exception {
+        int threads = 16;
+        int creditsPerThread = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Integer> returned = new ArrayList<>();
+                    for (int j = 0; j < creditsPerThread; j++) {
+                        returned.add(gameService.creditTurns(username, 1));
+                    }
+                    return returned;
+                }));
+            }
+            start.countDown();
+
+            List<Integer> returned = new ArrayList<>();
+            for (Future<List<Integer>> result : results) {
+                returned.addAll(result.get(30, TimeUnit.SECONDS));
+            }
+            int total = threads * creditsPerThread;
+            assertEquals(total, turns());
+            // Mỗi lần cộng trả về đúng số lượt sau chính lần cộng đó: các giá trị 1..total, không trùng
+            assertEquals(total, returned.stream().distinct().count());
+            assertTrue(returned.stream().allMatch(turns -> turns >= 1 && turns <= total));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void unknownUserIsRejected() {
+        assertThrows(UsernameNotFoundException.class, () -> gameService.creditTurns(username + "-missing", 5));
+        assertTrue(userRepository.incrementTurns(username + "-missing", 5).isEmpty());
+        assertEquals(0, turns());
+    }
+
+    private int turns() {
+        return jdbcTemplate.queryForObject("SELECT turns FROM users WHERE username = ?", Integer.class, username);
+    }
+}
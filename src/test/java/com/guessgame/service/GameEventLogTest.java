@@ -0,0 +1,81 @@
+package com.guessgame.service;
+
+import com.guessgame.metrics.GameMetrics;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameEventLogTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final GameMetrics gameMetrics = mock(GameMetrics.class);
+
+    @Test
+    void failedBatchIsRetriedInsteadOfDropped() throws Exception {
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("db down"))
+                .thenReturn(1);
+        GameEventLog eventLog = new GameEventLog(jdbcTemplate, gameMetrics, true, 16, 100, 10);
+        eventLog.start();
+
+        eventLog.turnsCredited("alice", 5);
+
+        verify(gameMetrics, timeout(5_000)).recordGameEventsWritten(anyLong(), eq(1));
+        eventLog.stop();
+        verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+        verify(gameMetrics).recordGameEventsRetried();
+        verify(gameMetrics, never()).recordGameEventsDropped(anyInt());
+    }
+
+    @Test
+    void fullQueueBlocksTheCallerUntilTheWriterCatchesUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            release.await();
+            return 1;
+        });
+        // Lô một sự kiện, hàng đợi một chỗ: khi luồng ghi bị chặn, sự kiện thứ ba phải chờ
+        GameEventLog eventLog = new GameEventLog(jdbcTemplate, gameMetrics, true, 1, 1, 10);
+        eventLog.start();
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 3; i++) {
+                eventLog.turnsCredited("alice", 1);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(producer.isDone());
+
+        release.countDown();
+        producer.get(5, TimeUnit.SECONDS);
+        verify(gameMetrics, timeout(5_000).times(3)).recordGameEventsWritten(anyLong(), eq(1));
+        eventLog.stop();
+
+        ArgumentCaptor<Integer> written = ArgumentCaptor.forClass(Integer.class);
+        verify(gameMetrics, atLeastOnce()).recordGameEventsWritten(anyLong(), written.capture());
+        assertEquals(3, written.getAllValues().stream().mapToInt(Integer::intValue).sum());
+        verify(gameMetrics, never()).recordGameEventsDropped(anyInt());
+    }
+}
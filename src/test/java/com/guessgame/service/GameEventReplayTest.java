@@ -0,0 +1,79 @@
+package com.guessgame.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Kiểm thử đối chiếu/dựng lại số dư từ {@code game_events} với PostgreSQL thật. Chạy trong transaction được
+ * rollback, nên việc dựng lại không ảnh hưởng dữ liệu của các kiểm thử khác.
+ */
+@SpringBootTest
+@Transactional
+class GameEventReplayTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildRestoresBalancesFromTheLog() {
+        String suffix = String.valueOf(System.nanoTime());
+        String drifted = "drifted" + suffix;
+        String opened = "opened" + suffix;
+        String fresh = "fresh" + suffix;
+
+        // Cộng 5 lượt, thắng một lượt, thua một lượt: 1 điểm, 3 lượt; users lại ghi 7 điểm, 0 lượt
+        insertUser(drifted, 7, 0);
+        insertEvent("TURNS_CREDITED", drifted, 0, 5);
+        insertEvent("GUESS", drifted, GameService.POINTS_PER_WIN, -1);
+        insertEvent("GUESS", drifted, 0, -1);
+        // Số dư có sẵn trước khi ghi nhật ký
+        insertUser(opened, 2, 4);
+        insertEvent("OPENING_BALANCE", opened, 2, 4);
+        insertUser(fresh, 0, 0);
+
+        GameEventReplay replay = new GameEventReplay(jdbcTemplate, "rebuild");
+        Set<String> ours = Set.of(drifted, opened, fresh);
+        List<GameEventReplay.Mismatch> before = replay.mismatches().stream()
+                .filter(mismatch -> ours.contains(mismatch.username())).toList();
+        assertEquals(List.of(new GameEventReplay.Mismatch(drifted, 7, 0, 1, 3)), before);
+        assertEquals(1, replay.verify());
+
+        assertEquals(0, replay.rebuild());
+
+        assertEquals(List.of(1, 3), balance(drifted));
+        assertEquals(List.of(2, 4), balance(opened));
+        assertEquals(List.of(0, 0), balance(fresh));
+        assertEquals(0, replay.verify());
+    }
+
+    @Test
+    void unknownModeFailsFast() {
+        GameEventReplay replay = new GameEventReplay(jdbcTemplate, "apply");
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> replay.run(null));
+        assertEquals("Không hỗ trợ game.events.replay.mode=apply, giá trị hợp lệ: verify, rebuild", e.getMessage());
+    }
+
+    private void insertUser(String username, int score, int turns) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password, role, score, turns) VALUES (?, ?, 'x', 'USER', ?, ?)",
+                username, username + "@test.local", score, turns);
+    }
+
+    private void insertEvent(String type, String username, int scoreDelta, int turnsDelta) {
+        jdbcTemplate.update("INSERT INTO game_events (type, username, score_delta, turns_delta, created_at) VALUES (?, ?, ?, ?, now())",
+                type, username, scoreDelta, turnsDelta);
+    }
+
+    private List<Integer> balance(String username) {
+        return jdbcTemplate.queryForObject("SELECT score, turns FROM users WHERE username = ?",
+                (rs, rowNum) -> List.of(rs.getInt("score"), rs.getInt("turns")), username);
+    }
+}
@@ -0,0 +1,135 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.GuessBatchResult;
+import com.guessgame.dto.GuessResult;
+import com.guessgame.dto.UserBalanceView;
+import com.guessgame.entity.User;
+import com.guessgame.exception.GuessNumberException;
+import com.guessgame.metrics.GameMetrics;
+import com.guessgame.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameServiceTest {
+
+    @Test
+    void singleDrawDecidesServerNumberAndBonusWin() {
+        // 0..4: số máy chủ 1..5 và thắng thêm; 5..99: chỉ thắng khi đoán trúng
+        GameService gameService = gameService(sequence(0, 7, 9, 99));
+
+        GuessResult bonus = gameService.guess("player", 3);
+        assertEquals(1, bonus.serverNumber());
+        assertTrue(bonus.win());
+
+        GuessResult hit = gameService.guess("player", 3);
+        assertEquals(3, hit.serverNumber());
+        assertTrue(hit.win());
+
+        GuessResult miss = gameService.guess("player", 3);
+        assertEquals(5, miss.serverNumber());
+        assertFalse(miss.win());
+
+        assertEquals(5, gameService.guess("player", 3).serverNumber());
+    }
+
+    @Test
+    void seededRandomIsReproducible() {
+        List<GuessResult> first = play(gameService(GameRandom.seeded(42)));
+        List<GuessResult> second = play(gameService(GameRandom.seeded(42)));
+        assertEquals(first, second);
+    }
+
+    @Test
+    void inMemoryBatchStopsWhenTurnsRunOut() {
+        // Người chơi có 2 lượt: lượt đầu thắng thêm, lượt hai đoán sai
+        GameService gameService = gameService(sequence(0, 99), new UserBalanceView(1L, 2, 10));
+
+        GuessBatchResult result = gameService.guessBatch("player", List.of(3, 3, 3));
+
+        assertEquals(2, result.results().size());
+        assertEquals(List.of(true, false), result.results().stream().map(GuessResult::win).toList());
+        assertEquals(11, result.score());
+        assertEquals(0, result.turns());
+        assertThrows(GuessNumberException.class, () -> gameService.guessBatch("player", List.of(1)));
+    }
+
+    @Test
+    void lockedBatchSavesFinalBalanceOnce() {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = User.builder().id(1L).username("player").score(5).turns(2).build();
+        when(userRepository.findByUsernameForUpdate("player")).thenReturn(Optional.of(user));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        LeaderboardIndex leaderboardIndex = new LeaderboardIndex(null);
+        TurnLedger turnLedger = new TurnLedger(userRepository, null, null);
+        GameService gameService = new GameService(userRepository, turnLedger, leaderboardIndex, transactionTemplate,
+                sequence(7, 0), GameMetrics.noop(), GameEventLog.disabled());
+        ReflectionTestUtils.setField(gameService, "maxBatchSize", 10);
+
+        GuessBatchResult result = gameService.guessBatch("player", List.of(3, 5, 1));
+
+        // 7 -> số máy chủ 3 (trúng), 0 -> số máy chủ 1 và thắng thêm; lượt thứ ba không còn lượt chơi
+        assertEquals(2, result.results().size());
+        assertEquals(7, result.score());
+        assertEquals(0, result.turns());
+        verify(userRepository, times(1)).save(user);
+        assertEquals(7, user.getScore());
+        assertEquals(0, user.getTurns());
+        assertEquals(7, leaderboardIndex.rank("player", 0).entry().score());
+    }
+
+    @Test
+    void batchRejectsInvalidInputBeforePlaying() {
+        GameService gameService = gameService(sequence());
+
+        assertThrows(GuessNumberException.class, () -> gameService.guessBatch("player", List.of()));
+        assertThrows(GuessNumberException.class, () -> gameService.guessBatch("player", List.of(1, 6)));
+        assertThrows(GuessNumberException.class, () -> gameService.guessBatch("player", Collections.nCopies(11, 1)));
+    }
+
+    private static List<GuessResult> play(GameService gameService) {
+        List<GuessResult> results = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(gameService.guess("player", i % 5 + 1));
+        }
+        return results;
+    }
+
+    private static GameRandom sequence(int... draws) {
+        int[] next = {0};
+        return bound -> draws[next[0]++];
+    }
+
+    private static GameService gameService(GameRandom gameRandom) {
+        return gameService(gameRandom, new UserBalanceView(1L, 1000, 0));
+    }
+
+    private static GameService gameService(GameRandom gameRandom, UserBalanceView balance) {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findBalanceByUsername("player")).thenReturn(Optional.of(balance));
+        TurnLedger turnLedger = new TurnLedger(userRepository, null, null);
+        ReflectionTestUtils.setField(turnLedger, "enabled", true);
+        GameService gameService = new GameService(userRepository, turnLedger, new LeaderboardIndex(null), null, gameRandom,
+                GameMetrics.noop(), GameEventLog.disabled());
+        ReflectionTestUtils.setField(gameService, "maxBatchSize", 10);
+        return gameService;
+    }
+}
@@ -0,0 +1,58 @@
+package com.guessgame.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LeaderboardIndexTest {
+
+    @Test
+    void ordersByScoreThenId() {
+        LeaderboardIndex index = new LeaderboardIndex(null);
+        index.update(1, "a", 5);
+        index.update(2, "b", 7);
+        index.update(3, "c", 5);
+        index.update(1, "a", 9);
+
+        List<String> top = index.top(10).stream().map(LeaderboardIndex.Entry::username).toList();
+        assertEquals(List.of("a", "b", "c"), top);
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void rankAndPagesMatchSortedOrder() {
+        LeaderboardIndex index = new LeaderboardIndex(null);
+        Random random = new Random(42);
+        List<LeaderboardIndex.Entry> expected = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            expected.add(new LeaderboardIndex.Entry(id, "user" + id, 0));
+            index.update(id, "user" + id, 0);
+        }
+        for (int i = 0; i < 2000; i++) {
+            int id = random.nextInt(500) + 1;
+            LeaderboardIndex.Entry old = expected.get(id - 1);
+            LeaderboardIndex.Entry updated = new LeaderboardIndex.Entry(id, old.username(), old.score() + random.nextInt(3));
+            expected.set(id - 1, updated);
+            index.update(id, updated.username(), updated.score());
+        }
+        List<LeaderboardIndex.Entry> sorted = new ArrayList<>(expected);
+        sorted.sort(Comparator.comparingInt(LeaderboardIndex.Entry::score).reversed()
+                .thenComparingLong(LeaderboardIndex.Entry::id));
+
+        assertEquals(sorted.subList(40, 60), index.page(40, 20));
+        assertEquals(sorted.subList(490, 500), index.page(490, 20));
+        for (int position = 0; position < sorted.size(); position += 37) {
+            LeaderboardIndex.Entry entry = sorted.get(position);
+            LeaderboardIndex.Rank rank = index.rank(entry.username(), 2);
+            assertEquals(position + 1, rank.rank());
+            assertEquals(sorted.subList(Math.max(0, position - 2), Math.min(sorted.size(), position + 3)), rank.neighbours());
+        }
+        assertNull(index.rank("missing", 2));
+    }
+}
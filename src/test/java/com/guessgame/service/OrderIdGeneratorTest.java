@@ -0,0 +1,64 @@
+package com.guessgame.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderIdGeneratorTest {
+
+    @Test
+    void idsAreUniqueAndIncreasingAcrossThreads() throws Exception {
+        OrderIdGenerator generator = new OrderIdGenerator(7);
+        int threads = 8;
+        // Đủ để vượt 4096 id trong cùng một mili giây
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            Callable<long[]> task = () -> {
+                long[] ids = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            };
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(task));
+            }
+
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(ids[i] > 0);
+                    // Mã node nằm ở 10 bit giữa
+                    assertEquals(7, (ids[i] >>> 12) & 0x3FF);
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1], "id phải tăng dần trên cùng một luồng");
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            assertEquals(threads * perThread, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new OrderIdGenerator(1024));
+    }
+}
@@ -0,0 +1,175 @@
+package com.guessgame.service;
+
+import com.guessgame.entity.PaymentOrder;
+import com.guessgame.entity.PaymentStatus;
+import com.guessgame.entity.User;
+import com.guessgame.repository.PaymentOrderRepository;
+import com.guessgame.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Kiểm thử xác nhận thanh toán với PostgreSQL thật (cùng cấu hình với {@code GuessNumberApplicationTests}).
+ */
+@SpringBootTest
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentCreditWorker paymentCreditWorker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TurnLedger turnLedger;
+
+    private String username;
+
+    @BeforeEach
+    void createUser() {
+        username = "pay" + System.nanoTime();
+        userRepository.save(User.builder().username(username).email(username + "@test.local")
+                .password("x").role("USER").build());
+    }
+
+    @Test
+    void repeatedConfirmCreditsOnce() throws Exception {
+        PaymentOrder order = paymentService.createOrder(username, 5);
+
+        assertEquals(5, await(paymentService.confirmOrder(username, order.getId())));
+        assertNull(await(paymentService.confirmOrder(username, order.getId())));
+
+        assertEquals(5, turns());
+        assertEquals(PaymentStatus.CREDITED, status(order.getId()));
+    }
+
+    @Test
+    void concurrentConfirmsCreditOnce() throws Exception {
+        PaymentOrder order = paymentService.createOrder(username, 5);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return await(paymentService.confirmOrder(username, order.getId()));
+                }));
+            }
+            start.countDown();
+
+            List<Integer> credited = new ArrayList<>();
+            for (Future<Integer> result : results) {
+                credited.add(result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(List.of(5), credited.stream().filter(Objects::nonNull).toList());
+            assertEquals(5, turns());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void duplicateSubmissionsGetNullEvenWhenUserHasAnotherOrderInTheBatch() throws Exception {
+        PaymentOrder credited = paymentService.createOrder(username, 5);
+        await(paymentService.confirmOrder(username, credited.getId()));
+        PaymentOrder paid = paymentService.createOrder(username, 5);
+        paymentOrderRepository.markPaid(paid.getId(), username, Instant.now(), PaymentStatus.PENDING, PaymentStatus.PAID);
+
+        // Gửi liên tiếp để các yêu cầu rơi vào cùng một lô
+        List<CompletableFuture<Integer>> again = new ArrayList<>();
+        List<CompletableFuture<Integer>> first = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            again.add(paymentCreditWorker.submit(credited.getId(), username));
+            first.add(paymentCreditWorker.submit(paid.getId(), username));
+        }
+
+        for (CompletableFuture<Integer> result : again) {
+            assertNull(await(result));
+        }
+        List<Integer> firstResults = new ArrayList<>();
+        for (CompletableFuture<Integer> result : first) {
+            firstResults.add(await(result));
+        }
+        assertEquals(List.of(10), firstResults.stream().filter(Objects::nonNull).toList());
+        assertEquals(10, turns());
+    }
+
+    @Test
+    void sweepCreditsOrdersStuckInPaid() throws Exception {
+        PaymentOrder order = paymentService.createOrder(username, 5);
+        // Đơn hàng đã thanh toán nhưng chưa được cộng (ví dụ: tiến trình dừng trước khi cộng)
+        jdbcTemplate.update("UPDATE payment_orders SET status = 'PAID', confirmed_at = now() - interval '1 hour' WHERE id = ?",
+                order.getId());
+
+        paymentCreditWorker.sweep();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (status(order.getId()) != PaymentStatus.CREDITED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(PaymentStatus.CREDITED, status(order.getId()));
+        assertEquals(5, turns());
+    }
+
+    @Test
+    void ledgerModeCommitsPaidTurnsWithTheOrder() throws Exception {
+        ReflectionTestUtils.setField(turnLedger, "enabled", true);
+        try {
+            // Tài khoản đã nằm trong sổ cái trước khi thanh toán
+            assertEquals(0, turnLedger.getTurns(username));
+            PaymentOrder order = paymentService.createOrder(username, 5);
+
+            assertEquals(5, await(paymentService.confirmOrder(username, order.getId())));
+            // Đã có trong cơ sở dữ liệu ngay khi đơn hàng CREDITED, không chờ sổ cái ghi xuống
+            assertEquals(5, turns());
+            assertEquals(5, turnLedger.getTurns(username));
+
+            // Không có delta chờ ghi: lần ghi của sổ cái không cộng thêm lần nữa
+            turnLedger.flush();
+            assertEquals(5, turns());
+        } finally {
+            ReflectionTestUtils.setField(turnLedger, "enabled", false);
+        }
+    }
+
+    private static Integer await(CompletableFuture<Integer> result) throws Exception {
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    private int turns() {
+        return jdbcTemplate.queryForObject("SELECT turns FROM users WHERE username = ?", Integer.class, username);
+    }
+
+    private PaymentStatus status(long orderId) {
+        return paymentOrderRepository.findById(orderId).orElseThrow().getStatus();
+    }
+}
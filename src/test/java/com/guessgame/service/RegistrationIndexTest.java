@@ -0,0 +1,65 @@
+package com.guessgame.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RegistrationIndexTest {
+
+    @Test
+    void loadSeedsEveryExistingUser() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            for (int i = 0; i < 200; i++) {
+                when(rs.getString("username")).thenReturn("user" + i);
+                when(rs.getString("email")).thenReturn(i % 10 == 0 ? null : "user" + i + "@x.com");
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        RegistrationIndex index = registrationIndex(jdbcTemplate);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(index.mightContainUsername("user" + i), "user" + i);
+            if (i % 10 != 0) {
+                assertTrue(index.mightContainEmail("user" + i + "@x.com"), "user" + i + "@x.com");
+            }
+        }
+    }
+
+    @Test
+    void registeredUserIsNeverReportedAsFree() {
+        RegistrationIndex index = registrationIndex(mock(JdbcTemplate.class));
+        assertFalse(index.mightContainUsername("alice"));
+        assertFalse(index.mightContainEmail("alice@x.com"));
+
+        index.add("alice", "alice@x.com");
+        index.add("bob", null);
+
+        assertTrue(index.mightContainUsername("alice"));
+        assertTrue(index.mightContainEmail("alice@x.com"));
+        assertTrue(index.mightContainUsername("bob"));
+    }
+
+    private static RegistrationIndex registrationIndex(JdbcTemplate jdbcTemplate) {
+        RegistrationIndex index = new RegistrationIndex(jdbcTemplate);
+        ReflectionTestUtils.setField(index, "expectedUsers", 10_000L);
+        ReflectionTestUtils.setField(index, "falsePositiveRate", 0.01);
+        index.load();
+        return index;
+    }
+}
@@ -0,0 +1,151 @@
+package com.guessgame.service;
+
+import com.guessgame.dto.UserBalanceView;
+import com.guessgame.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TurnLedgerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    TurnLedgerTest() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictsFlushedIdleAccountsAndReloadsThem() {
+        when(userRepository.findBalanceByUsername("player"))
+                .thenReturn(Optional.of(new UserBalanceView(1L, 5, 0)))
+                .thenReturn(Optional.of(new UserBalanceView(1L, 4, 1)));
+        TurnLedger ledger = ledger(0);
+
+        ledger.tryConsumeTurn("player");
+        ledger.addScore("player", 1);
+        ledger.flush();
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        // Lô được ghi bên trong transaction
+        var order = inOrder(transactionTemplate, jdbcTemplate);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertArrayEquals(new Object[]{-1, 1, 1L}, rows.getValue().get(0));
+        assertEquals(0, ledger.size());
+
+        // Lần dùng sau nạp lại giá trị đã ghi từ cơ sở dữ liệu
+        assertEquals(3, ledger.addTurns("player", -1));
+        verify(userRepository, times(2)).findBalanceByUsername("player");
+    }
+
+    @Test
+    void keepsAccountsWithPendingDeltaOrRecentUse() {
+        when(userRepository.findBalanceByUsername("player")).thenReturn(Optional.of(new UserBalanceView(1L, 5, 0)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        TurnLedger ledger = ledger(0);
+
+        ledger.tryConsumeTurn("player");
+        ledger.flush();
+        // Ghi lỗi: delta được trả lại nên tài khoản không bị loại
+        assertEquals(1, ledger.size());
+        assertEquals(4, ledger.getTurns("player"));
+
+        TurnLedger recent = ledger(60_000);
+        recent.getTurns("player");
+        recent.flush();
+        assertEquals(1, recent.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void concurrentFirstUseSharesOneAccount() throws Exception {
+        when(userRepository.findBalanceByUsername("player")).thenReturn(Optional.of(new UserBalanceView(1L, 0, 0)));
+        TurnLedger ledger = ledger(60_000);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        ledger.addTurns("player", 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Tài khoản nạp thừa bị bỏ trước khi được thay đổi nên không mất lượt nào
+        assertEquals(800, ledger.getTurns("player"));
+        ledger.flush();
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertArrayEquals(new Object[]{800, 0, 1L}, rows.getValue().get(0));
+    }
+
+    @Test
+    void committedTurnsUpdateThePinnedAccountWithoutPendingDelta() {
+        when(userRepository.findBalanceByUsername("player")).thenReturn(Optional.of(new UserBalanceView(1L, 2, 0)));
+        TurnLedger ledger = ledger(0);
+
+        Map<String, Integer> turnsLeft = ledger.addCommittedTurns(List.of("player"), () -> {
+            // Tài khoản đang được giữ nên không bị loại khỏi bộ nhớ trong lúc ghi
+            ledger.flush();
+            assertEquals(1, ledger.size());
+            return Map.of("player", 5);
+        });
+
+        assertEquals(Map.of("player", 7), turnsLeft);
+        assertEquals(7, ledger.getTurns("player"));
+        ledger.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(userRepository, times(1)).findBalanceByUsername("player");
+    }
+
+    private TurnLedger ledger(long idleEvictMs) {
+        TurnLedger ledger = new TurnLedger(userRepository, jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(ledger, "enabled", true);
+        ReflectionTestUtils.setField(ledger, "idleEvictMs", idleEvictMs);
+        return ledger;
+    }
+}
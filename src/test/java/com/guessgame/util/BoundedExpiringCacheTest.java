@@ -0,0 +1,87 @@
+package com.guessgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void entriesExpireAtTheirOwnDeadline() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, now::get);
+        cache.put("a", "A", 1_100);
+        cache.put("b", "B", 1_200);
+
+        now.set(1_099);
+        assertEquals("A", cache.get("a"));
+        now.set(1_100);
+        assertNull(cache.get("a"));
+        assertEquals("B", cache.get("b"));
+        assertEquals(1, cache.size());
+
+        // Hết hạn thì nạp lại
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals("B", cache.computeIfAbsent("b", key -> "B" + loads.incrementAndGet(), 2_000));
+        now.set(1_200);
+        assertEquals("B1", cache.computeIfAbsent("b", key -> "B" + loads.incrementAndGet(), 2_000));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirstThenEvictsToStayBounded() {
+        BoundedExpiringCache<Integer, Integer> cache = new BoundedExpiringCache<>(10, now::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i, 1_500);
+        }
+        for (int i = 5; i < 10; i++) {
+            cache.put(i, i, 9_000);
+        }
+
+        now.set(2_000);
+        cache.put(10, 10, 9_000);
+        // Chỉ các phần tử đã hết hạn bị dọn
+        assertEquals(6, cache.size());
+        for (int i = 5; i <= 10; i++) {
+            assertEquals(i, cache.get(i));
+        }
+
+        for (int i = 11; i < 100; i++) {
+            cache.put(i, i, 9_000);
+            assertTrue(cache.size() <= 10);
+        }
+        assertEquals(99, cache.get(99));
+    }
+
+    @Test
+    void putIfAbsentKeepsTheLiveValueAndReplacesAnExpiredOne() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, now::get);
+        assertEquals("A", cache.putIfAbsent("a", "A", 1_100));
+        assertEquals("A", cache.putIfAbsent("a", "other", 2_000));
+
+        now.set(1_100);
+        assertEquals("A2", cache.putIfAbsent("a", "A2", 2_000));
+        assertEquals("A2", cache.get("a"));
+    }
+
+    @Test
+    void touchExtendsALiveEntryAndDropsAnExpiredOne() {
+        BoundedExpiringCache<String, String> cache = new BoundedExpiringCache<>(10, now::get);
+        cache.put("a", "A", 1_100);
+        assertEquals("A", cache.touch("a", 1_500));
+
+        now.set(1_200);
+        assertEquals("A", cache.get("a"));
+
+        now.set(1_500);
+        assertNull(cache.touch("a", 2_000));
+        assertNull(cache.get("a"));
+        assertNull(cache.touch("missing", 2_000));
+    }
+}